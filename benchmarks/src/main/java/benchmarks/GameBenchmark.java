@@ -0,0 +1,117 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The ChessGame rules queries the server runs for every move
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameBenchmark {
+
+    private ChessGame middlegame;
+    private ChessGame check;
+    private ChessGame checkmate;
+    private ChessGame stalemate;
+    private ChessGame startGame;
+    private final List<ChessPosition> whitePieces = new ArrayList<>();
+
+    @Setup
+    public void setUp() {
+        middlegame = ChessGame.fromFen(Positions.MIDDLEGAME);
+        check = ChessGame.fromFen(Positions.CHECK);
+        checkmate = ChessGame.fromFen(Positions.CHECKMATE);
+        stalemate = ChessGame.fromFen(Positions.STALEMATE);
+        startGame = new ChessGame();
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                var piece = middlegame.getBoard().getPiece(ChessPosition.of(row, col));
+                if (piece != null && piece.getTeamColor() == ChessGame.TeamColor.WHITE) {
+                    whitePieces.add(ChessPosition.of(row, col));
+                }
+            }
+        }
+    }
+
+    /**
+     * After the first call the legal moves come from the game's cache, so
+     * this measures picking moves out of the cached list
+     */
+    @Benchmark
+    public void validMovesAllPieces(Blackhole blackhole) {
+        for (ChessPosition position : whitePieces) {
+            blackhole.consume(middlegame.validMoves(position));
+        }
+    }
+
+    /**
+     * The same query with the cache dropped first, so legal move generation
+     * runs on every call
+     */
+    @Benchmark
+    public void validMovesAllPiecesCold(Blackhole blackhole) {
+        //setting the turn, even to the same team, clears the cached legal moves
+        middlegame.setTeamTurn(middlegame.getTeamTurn());
+        for (ChessPosition position : whitePieces) {
+            blackhole.consume(middlegame.validMoves(position));
+        }
+    }
+
+    @Benchmark
+    public boolean isInCheck() {
+        return check.isInCheck(ChessGame.TeamColor.BLACK);
+    }
+
+    @Benchmark
+    public boolean isInCheckQuiet() {
+        return middlegame.isInCheck(ChessGame.TeamColor.WHITE);
+    }
+
+    @Benchmark
+    public boolean isInCheckmate() {
+        return checkmate.isInCheckmate(ChessGame.TeamColor.WHITE);
+    }
+
+    @Benchmark
+    public boolean isInStalemate() {
+        return stalemate.isInStalemate(ChessGame.TeamColor.BLACK);
+    }
+
+    /**
+     * Both knights out and back, which ends on the position it started from
+     */
+    private static final ChessMove[] KNIGHT_SHUFFLE = {
+            new ChessMove(ChessPosition.of(1, 7), ChessPosition.of(3, 6), null),
+            new ChessMove(ChessPosition.of(8, 7), ChessPosition.of(6, 6), null),
+            new ChessMove(ChessPosition.of(3, 6), ChessPosition.of(1, 7), null),
+            new ChessMove(ChessPosition.of(6, 6), ChessPosition.of(8, 7), null),
+    };
+
+    /**
+     * makeMove changes the game, so each call plays a shuffle that returns to
+     * the start position instead of paying for a fresh game per call
+     */
+    @Benchmark
+    @OperationsPerInvocation(4)
+    public ChessGame makeMove() throws InvalidMoveException {
+        for (ChessMove move : KNIGHT_SHUFFLE) {
+            startGame.makeMove(move);
+        }
+        //setBoard drops the repetition history and clocks the shuffle built up
+        startGame.setBoard(startGame.getBoard());
+        return startGame;
+    }
+}
@@ -0,0 +1,44 @@
+package benchmarks;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ChessPiece.pieceMoves for one white piece of each type in a middlegame
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PieceMovesBenchmark {
+
+    @Param({"KING", "QUEEN", "BISHOP", "KNIGHT", "ROOK", "PAWN"})
+    public ChessPiece.PieceType type;
+
+    private ChessBoard board;
+    private ChessPiece piece;
+    private ChessPosition position;
+
+    @Setup
+    public void setUp() {
+        board = ChessGame.fromFen(Positions.MIDDLEGAME).getBoard();
+        long pieces = board.getPieceSet(ChessGame.TeamColor.WHITE, type);
+        int square = Long.numberOfTrailingZeros(pieces);
+        position = ChessPosition.of(square / 8 + 1, square % 8 + 1);
+        piece = board.getPiece(position);
+    }
+
+    @Benchmark
+    public Collection<ChessMove> pieceMoves() {
+        return piece.pieceMoves(board, position);
+    }
+}
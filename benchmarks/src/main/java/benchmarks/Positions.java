@@ -0,0 +1,17 @@
+package benchmarks;
+
+/**
+ * Board setups shared by the benchmarks, as FEN board and side to move
+ */
+final class Positions {
+    //"position 6" from the chessprogramming wiki, a busy middlegame
+    static final String MIDDLEGAME = "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w";
+    //black king attacked by the bishop on b5
+    static final String CHECK = "rnbqkbnr/ppp2ppp/3p4/1B2p3/4P3/8/PPPP1PPP/RNBQK1NR b";
+    //fool's mate
+    static final String CHECKMATE = "rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w";
+    static final String STALEMATE = "k7/8/1Q6/8/8/8/8/7K b";
+
+    private Positions() {
+    }
+}
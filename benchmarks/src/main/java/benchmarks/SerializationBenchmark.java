@@ -0,0 +1,54 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.ChessJson;
+import com.google.gson.Gson;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gson round trips of a ChessGame, as sent in every LOAD_GAME message, with
+ * reflective Gson and with the ChessJson adapters
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    private final Gson gson = new Gson();
+    private final Gson adapterGson = ChessJson.create();
+    private ChessGame game;
+    private String json;
+    private String adapterJson;
+
+    @Setup
+    public void setUp() {
+        game = ChessGame.fromFen(Positions.MIDDLEGAME);
+        json = gson.toJson(game);
+        adapterJson = adapterGson.toJson(game);
+    }
+
+    @Benchmark
+    public String toJson() {
+        return gson.toJson(game);
+    }
+
+    @Benchmark
+    public ChessGame fromJson() {
+        return gson.fromJson(json, ChessGame.class);
+    }
+
+    @Benchmark
+    public String toJsonAdapters() {
+        return adapterGson.toJson(game);
+    }
+
+    @Benchmark
+    public ChessGame fromJsonAdapters() {
+        return adapterGson.fromJson(adapterJson, ChessGame.class);
+    }
+}
@@ -0,0 +1,93 @@
+package chess;
+
+/**
+ * Answers "is this square attacked?" by looking outward from the square
+ * along rays, knight jumps and pawn diagonals instead of generating the
+ * other team's moves. Returns as soon as an attacker is found and does not
+ * allocate.
+ */
+final class Attacks {
+    private static final int[] KNIGHT_ROWS = {2, 2, 1, -1, -2, -2, -1, 1};
+    private static final int[] KNIGHT_COLS = {-1, 1, 2, 2, 1, -1, -2, -2};
+    private static final int[] KING_ROWS = {1, 1, 0, -1, -1, -1, 0, 1};
+    private static final int[] KING_COLS = {0, 1, 1, 1, 0, -1, -1, -1};
+
+    //mask of the squares a knight or king on each square can reach, built once
+    static final long[] KNIGHT_ATTACKS = new long[64];
+    static final long[] KING_ATTACKS = new long[64];
+    //squares a pawn of each color (TeamColor ordinal) on each square attacks
+    static final long[][] PAWN_ATTACKS = new long[2][64];
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            int row = ChessBoard.rowOf(square);
+            int col = ChessBoard.columnOf(square);
+            for (int i = 0; i < 8; i++) {
+                if (isInBounds(row + KNIGHT_ROWS[i], col + KNIGHT_COLS[i])) {
+                    KNIGHT_ATTACKS[square] |= 1L << ChessBoard.squareOf(row + KNIGHT_ROWS[i], col + KNIGHT_COLS[i]);
+                }
+                if (isInBounds(row + KING_ROWS[i], col + KING_COLS[i])) {
+                    KING_ATTACKS[square] |= 1L << ChessBoard.squareOf(row + KING_ROWS[i], col + KING_COLS[i]);
+                }
+            }
+            for (int side = -1; side <= 1; side += 2) {
+                if (isInBounds(row + 1, col + side)) {
+                    PAWN_ATTACKS[0][square] |= 1L << ChessBoard.squareOf(row + 1, col + side);
+                }
+                if (isInBounds(row - 1, col + side)) {
+                    PAWN_ATTACKS[1][square] |= 1L << ChessBoard.squareOf(row - 1, col + side);
+                }
+            }
+        }
+    }
+
+    private Attacks() {
+    }
+
+    /**
+     * @param board  the board to look at
+     * @param square the square index to test
+     * @param attackingTeam the team that might be attacking the square
+     * @return True if any piece of attackingTeam attacks the square
+     */
+    static boolean isSquareAttacked(ChessBoard board, int square, ChessGame.TeamColor attackingTeam) {
+        //an attacking pawn sits where a defending pawn on the square would attack
+        if ((PAWN_ATTACKS[ChessGame.otherTeam(attackingTeam).ordinal()][square]
+                & board.getPieceSet(attackingTeam, ChessPiece.PieceType.PAWN)) != 0) {
+            return true;
+        }
+
+        //knights and kings attack symmetrically, so use the tables from the square itself
+        if ((KNIGHT_ATTACKS[square] & board.getPieceSet(attackingTeam, ChessPiece.PieceType.KNIGHT)) != 0
+                || (KING_ATTACKS[square] & board.getPieceSet(attackingTeam, ChessPiece.PieceType.KING)) != 0) {
+            return true;
+        }
+
+        long queens = board.getPieceSet(attackingTeam, ChessPiece.PieceType.QUEEN);
+        long straight = board.getPieceSet(attackingTeam, ChessPiece.PieceType.ROOK) | queens;
+        long diagonal = board.getPieceSet(attackingTeam, ChessPiece.PieceType.BISHOP) | queens;
+        long occupied = board.getOccupied();
+        return (straight != 0 && (Magics.rookAttacks(square, occupied) & straight) != 0)
+                || (diagonal != 0 && (Magics.bishopAttacks(square, occupied) & diagonal) != 0);
+    }
+
+    /**
+     * @return mask of every piece of attackingTeam that attacks the square
+     */
+    static long attackersOf(ChessBoard board, int square, ChessGame.TeamColor attackingTeam) {
+        long queens = board.getPieceSet(attackingTeam, ChessPiece.PieceType.QUEEN);
+        long straight = board.getPieceSet(attackingTeam, ChessPiece.PieceType.ROOK) | queens;
+        long diagonal = board.getPieceSet(attackingTeam, ChessPiece.PieceType.BISHOP) | queens;
+        long occupied = board.getOccupied();
+        return (PAWN_ATTACKS[ChessGame.otherTeam(attackingTeam).ordinal()][square]
+                        & board.getPieceSet(attackingTeam, ChessPiece.PieceType.PAWN))
+                | (KNIGHT_ATTACKS[square] & board.getPieceSet(attackingTeam, ChessPiece.PieceType.KNIGHT))
+                | (KING_ATTACKS[square] & board.getPieceSet(attackingTeam, ChessPiece.PieceType.KING))
+                | (Magics.rookAttacks(square, occupied) & straight)
+                | (Magics.bishopAttacks(square, occupied) & diagonal);
+    }
+
+    private static boolean isInBounds(int row, int col) {
+        return row <= 8 && row >= 1 && col <= 8 && col >= 1;
+    }
+}
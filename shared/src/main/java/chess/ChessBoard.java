@@ -2,7 +2,6 @@ package chess;
 
 
 import java.util.Arrays;
-import java.util.Objects;
 
 /**
  * A chessboard that can hold and rearrange chess pieces.
@@ -10,9 +9,37 @@ import java.util.Objects;
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
  * they put what the class should before it is defined
+ * <p>
+ * The board is stored as bitboards: one 64 bit set per piece (color and type)
+ * plus occupancy masks for each team. Bit 0 is row 1 column 1 and bit 63 is
+ * row 8 column 8. A mailbox array is kept next to the bitboards so getPiece
+ * stays a single array read.
  */
 public class ChessBoard {
-    ChessPiece[][] place = new ChessPiece[8][8];
+    //one set per color and piece type, indexed by pieceIndex
+    private final long[] pieceSets = new long[12];
+    private final long[] teamSets = new long[2];
+    private long occupied;
+    private final ChessPiece[] squares = new ChessPiece[64];
+    //square of each team's king, -1 when that team has no king on the board
+    private final int[] kingSquares = {-1, -1};
+    //Zobrist key of the pieces on the board, kept up to date by setPiece
+    private long hashKey;
+    //total piece value of each team, kings not counted, kept up to date by setPiece
+    private final int[] material = new int[2];
+
+    //usual piece values in pawns, by PieceType ordinal
+    private static final int[] PIECE_VALUES = {0, 9, 3, 3, 5, 1};
+    /**
+     * Value of a knight or bishop in the material totals
+     */
+    public static final int MINOR_PIECE_VALUE = 3;
+    //bit set for every light square (a1 is dark)
+    static final long LIGHT_SQUARES = 0x55AA55AA55AA55AAL;
+    //FEN letter of each PieceType by ordinal, upper case for white
+    private static final String FEN_PIECES = "kqbnrp";
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
     public ChessBoard() {
 
     }
@@ -22,11 +49,10 @@ public class ChessBoard {
      *
      * @param position where to add the piece to
      * @param piece    the piece to add
+     * @throws ArrayIndexOutOfBoundsException if the position is off the board
      */
     public void addPiece(ChessPosition position, ChessPiece piece) {
-        place[position.getRow()-1][position.getColumn()-1] = piece;
-
-
+        setPiece(checkedSquareOf(position), piece);
     }
 
     /**
@@ -35,9 +61,10 @@ public class ChessBoard {
      * @param position The position to get the piece from
      * @return Either the piece at the position, or null if no piece is at that
      * position
+     * @throws ArrayIndexOutOfBoundsException if the position is off the board
      */
     public ChessPiece getPiece(ChessPosition position) {
-        return place[position.getRow()-1][position.getColumn()-1];
+        return squares[checkedSquareOf(position)];
     }
 
     /**
@@ -45,6 +72,7 @@ public class ChessBoard {
      * (How the game of chess normally starts)
      */
     public void resetBoard() {
+        clear();
         ChessPiece.PieceType[] BackRow = {
                 ChessPiece.PieceType.ROOK,
                 ChessPiece.PieceType.KNIGHT,
@@ -57,34 +85,263 @@ public class ChessBoard {
         };
         int x = 0;
         for(int i=1; i <=8; i++){
-            this.addPiece(new ChessPosition(1,i),new ChessPiece(ChessGame.TeamColor.WHITE,BackRow[x]));
+            this.addPiece(ChessPosition.of(1,i),ChessPiece.of(ChessGame.TeamColor.WHITE,BackRow[x]));
             x = x+1;
         }
         for(int i=1; i <= 8; i++){
-            this.addPiece(new ChessPosition(2,i), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+            this.addPiece(ChessPosition.of(2,i), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
         }
         int y = 0;
         for(int i=1; i<=8;i++){
-            this.addPiece(new ChessPosition(8,i), new ChessPiece(ChessGame.TeamColor.BLACK,BackRow[y]));
+            this.addPiece(ChessPosition.of(8,i), ChessPiece.of(ChessGame.TeamColor.BLACK,BackRow[y]));
             y = y+1;
         }
         for(int i=1; i <= 8; i++){
-            this.addPiece(new ChessPosition(7,i), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+            this.addPiece(ChessPosition.of(7,i), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
         }
 
     }
 
+    /**
+     * @return a mask of every square holding a piece of the given color and type
+     */
+    public long getPieceSet(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return pieceSets[pieceIndex(color, type)];
+    }
+
+    /**
+     * @return a mask of every square holding a piece of the given team
+     */
+    public long getTeamSet(ChessGame.TeamColor color) {
+        return teamSets[color.ordinal()];
+    }
+
+    /**
+     * @return a mask of every square holding any piece
+     */
+    public long getOccupied() {
+        return occupied;
+    }
+
+    /**
+     * Finds a team's king without scanning the board
+     *
+     * @param color the team whose king to find
+     * @return the king's position, or null if that team has no king
+     */
+    public ChessPosition getKingPosition(ChessGame.TeamColor color) {
+        int square = kingSquares[color.ordinal()];
+        return square < 0 ? null : ChessPosition.of(square);
+    }
+
+    /**
+     * @return the 64 bit Zobrist key of the pieces on the board. Equal boards
+     * always have equal keys, and it is updated on every addPiece instead of
+     * being recomputed.
+     */
+    public long getHashKey() {
+        return hashKey;
+    }
+
+    /**
+     * @return the summed value of a team's pieces other than the king, with
+     * pawn 1, knight and bishop 3, rook 5 and queen 9
+     */
+    public int getMaterial(ChessGame.TeamColor color) {
+        return material[color.ordinal()];
+    }
+
+    /**
+     * Determines if a square is attacked by any piece of the given team
+     *
+     * @param position      the square to look at
+     * @param attackingTeam the team that might be attacking it
+     * @return True if a piece of attackingTeam attacks the square
+     */
+    public boolean isSquareAttacked(ChessPosition position, ChessGame.TeamColor attackingTeam) {
+        return Attacks.isSquareAttacked(this, checkedSquareOf(position), attackingTeam);
+    }
+
+    /**
+     * Builds a board from the piece placement field of a FEN string, for
+     * example "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR". Anything after
+     * the first space is ignored, so a whole FEN string can be passed.
+     *
+     * @param fen the FEN string
+     * @return a new board holding those pieces
+     * @throws IllegalArgumentException if the placement is malformed
+     */
+    public static ChessBoard fromFen(String fen) {
+        int end = fen.indexOf(' ');
+        return fromFen(fen, 0, end < 0 ? fen.length() : end);
+    }
+
+    //parses the placement between start and end, reading rows 8 down to 1
+    static ChessBoard fromFen(String fen, int start, int end) {
+        ChessBoard board = new ChessBoard();
+        int row = 8;
+        int col = 1;
+        for(int i = start; i < end; i++){
+            char c = fen.charAt(i);
+            if(c == '/'){
+                if(col != 9 || row == 1){
+                    throw new IllegalArgumentException("Bad FEN placement: " + fen);
+                }
+                row--;
+                col = 1;
+            }
+            else if(c >= '1' && c <= '8'){
+                col += c - '0';
+            }
+            else{
+                int type = FEN_PIECES.indexOf(Character.toLowerCase(c));
+                if(type < 0 || col > 8){
+                    throw new IllegalArgumentException("Bad FEN placement: " + fen);
+                }
+                ChessGame.TeamColor color = Character.isUpperCase(c) ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+                board.setPiece(squareOf(row, col), ChessPiece.of(color, TYPES[type]));
+                col++;
+            }
+            if(col > 9){
+                throw new IllegalArgumentException("Bad FEN placement: " + fen);
+            }
+        }
+        if(row != 1 || col != 9){
+            throw new IllegalArgumentException("Bad FEN placement: " + fen);
+        }
+        return board;
+    }
+
+    /**
+     * @return the piece placement field of FEN for this board
+     */
+    public String toFen() {
+        StringBuilder fen = new StringBuilder(72);
+        appendFen(fen);
+        return fen.toString();
+    }
+
+    void appendFen(StringBuilder fen) {
+        for(int row = 8; row >= 1; row--){
+            int empty = 0;
+            for(int col = 1; col <= 8; col++){
+                ChessPiece piece = squares[squareOf(row, col)];
+                if(piece == null){
+                    empty++;
+                    continue;
+                }
+                if(empty > 0){
+                    fen.append((char) ('0' + empty));
+                    empty = 0;
+                }
+                char letter = FEN_PIECES.charAt(piece.getPieceType().ordinal());
+                fen.append(piece.getTeamColor() == ChessGame.TeamColor.WHITE ? Character.toUpperCase(letter) : letter);
+            }
+            if(empty > 0){
+                fen.append((char) ('0' + empty));
+            }
+            if(row > 1){
+                fen.append('/');
+            }
+        }
+    }
+
+    //square index helpers, square = (row-1)*8 + (col-1)
+    static int squareOf(ChessPosition position) {
+        return squareOf(position.getRow(), position.getColumn());
+    }
+
+    static int squareOf(int row, int col) {
+        return ((row - 1) << 3) + (col - 1);
+    }
+
+    //squareOf for positions from outside the package, failing as the old 8x8 array did instead of landing on another square
+    static int checkedSquareOf(ChessPosition position) {
+        int row = position.getRow();
+        int col = position.getColumn();
+        if(row < 1 || row > 8 || col < 1 || col > 8){
+            throw new ArrayIndexOutOfBoundsException("Position off the board: " + position);
+        }
+        return squareOf(row, col);
+    }
+
+    static int rowOf(int square) {
+        return (square >>> 3) + 1;
+    }
+
+    static int columnOf(int square) {
+        return (square & 7) + 1;
+    }
+
+    static int pieceIndex(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return color.ordinal() * 6 + type.ordinal();
+    }
+
+    ChessPiece getPiece(int square) {
+        return squares[square];
+    }
+
+    int kingSquare(ChessGame.TeamColor color) {
+        return kingSquares[color.ordinal()];
+    }
+
+    void setPiece(int square, ChessPiece piece) {
+        long bit = 1L << square;
+        ChessPiece old = squares[square];
+        if(old != null){
+            pieceSets[pieceIndex(old.getTeamColor(), old.getPieceType())] &= ~bit;
+            teamSets[old.getTeamColor().ordinal()] &= ~bit;
+            occupied &= ~bit;
+            hashKey ^= Zobrist.PIECE_SQUARE[pieceIndex(old.getTeamColor(), old.getPieceType())][square];
+            material[old.getTeamColor().ordinal()] -= PIECE_VALUES[old.getPieceType().ordinal()];
+            if(old.getPieceType() == ChessPiece.PieceType.KING && kingSquares[old.getTeamColor().ordinal()] == square){
+                //fall back to any other king of that color still on the board
+                long kings = pieceSets[pieceIndex(old.getTeamColor(), ChessPiece.PieceType.KING)];
+                kingSquares[old.getTeamColor().ordinal()] = kings == 0 ? -1 : Long.numberOfTrailingZeros(kings);
+            }
+        }
+        squares[square] = piece;
+        if(piece != null){
+            pieceSets[pieceIndex(piece.getTeamColor(), piece.getPieceType())] |= bit;
+            teamSets[piece.getTeamColor().ordinal()] |= bit;
+            occupied |= bit;
+            hashKey ^= Zobrist.PIECE_SQUARE[pieceIndex(piece.getTeamColor(), piece.getPieceType())][square];
+            material[piece.getTeamColor().ordinal()] += PIECE_VALUES[piece.getPieceType().ordinal()];
+            if(piece.getPieceType() == ChessPiece.PieceType.KING){
+                kingSquares[piece.getTeamColor().ordinal()] = square;
+            }
+        }
+    }
+
+    private void clear() {
+        Arrays.fill(squares, null);
+        Arrays.fill(pieceSets, 0L);
+        Arrays.fill(teamSets, 0L);
+        occupied = 0L;
+        Arrays.fill(kingSquares, -1);
+        hashKey = 0L;
+        Arrays.fill(material, 0);
+    }
+
     @Override
     public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
         if (o == null || getClass() != o.getClass()) {
             return false;
         }
         ChessBoard that = (ChessBoard) o;
-        return Objects.deepEquals(place, that.place);
+        //different keys always mean different boards, equal keys still need the real comparison
+        if (hashKey != that.hashKey) {
+            return false;
+        }
+        //the twelve piece sets fully describe the board, so compare them instead of 64 pieces
+        return Arrays.equals(pieceSets, that.pieceSets);
     }
 
     @Override
     public int hashCode() {
-        return Arrays.deepHashCode(place);
+        return Zobrist.fold(hashKey);
     }
 }
@@ -1,6 +1,7 @@
 package chess;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
@@ -15,14 +16,68 @@ public class ChessGame {
 
     private  ChessBoard board;
     private  TeamColor currentTurn;
+    //castling rights still available, a bitmask of the constants below
+    private int castlingRights;
+    //square the side to move may capture onto en passant, -1 if none
+    private int enPassantSquare;
+    //plies since the last capture or pawn move, for the fifty-move rule
+    private int halfmoveClock;
+    //starts at 1 and goes up after each black move, as in FEN
+    private int fullmoveNumber;
+    //keys of the positions before each move made so far, oldest first
+    private long[] keyHistory = new long[64];
+    private int historySize;
+    //reused while filtering legal moves so validMoves does not allocate per move
+    private final transient MoveUndo scratchUndo = new MoveUndo();
+    private final transient MoveList scratchMoves = new MoveList();
+    //legal moves of each team, valid while the position key still matches
+    private final transient MoveList[] legalCache = {new MoveList(), new MoveList()};
+    private final transient long[] legalCacheKeys = new long[2];
+    private final transient boolean[] legalCacheValid = new boolean[2];
+
+    /**
+     * Castling rights bits
+     */
+    public static final int WHITE_KINGSIDE = 1;
+    public static final int WHITE_QUEENSIDE = 2;
+    public static final int BLACK_KINGSIDE = 4;
+    public static final int BLACK_QUEENSIDE = 8;
+    public static final int ALL_CASTLING = 15;
+
+    private static final int WHITE_KING_HOME = 4;
+    private static final int BLACK_KING_HOME = 60;
+    //rights kept after a move from or to each square, so a move only has to AND two entries
+    private static final int[] CASTLING_MASK = new int[64];
+
+    static {
+        Arrays.fill(CASTLING_MASK, ALL_CASTLING);
+        CASTLING_MASK[WHITE_KING_HOME] = ~(WHITE_KINGSIDE | WHITE_QUEENSIDE);
+        CASTLING_MASK[WHITE_KING_HOME - 4] = ~WHITE_QUEENSIDE;
+        CASTLING_MASK[WHITE_KING_HOME + 3] = ~WHITE_KINGSIDE;
+        CASTLING_MASK[BLACK_KING_HOME] = ~(BLACK_KINGSIDE | BLACK_QUEENSIDE);
+        CASTLING_MASK[BLACK_KING_HOME - 4] = ~BLACK_QUEENSIDE;
+        CASTLING_MASK[BLACK_KING_HOME + 3] = ~BLACK_KINGSIDE;
+    }
 
     public ChessGame() {
         this.board = new ChessBoard();
         this.board.resetBoard();
         this.currentTurn = TeamColor.WHITE;
+        this.castlingRights = ALL_CASTLING;
+        this.enPassantSquare = -1;
+        this.fullmoveNumber = 1;
 
     }
 
+    //a game on a board built elsewhere (FEN, binary records), without setting up the start position first
+    ChessGame(ChessBoard board, TeamColor turn) {
+        this.board = board;
+        this.currentTurn = turn;
+        this.castlingRights = castlingRightsOf(board);
+        this.enPassantSquare = -1;
+        this.fullmoveNumber = 1;
+    }
+
     /**
      * @return Which team's turn it is
      */
@@ -31,12 +86,17 @@ public class ChessGame {
     }
 
     /**
-     * Set's which teams turn it is
+     * Set's which teams turn it is. Handing the turn to the other team
+     * clears the en passant square, which only the side to move may use.
      *
      * @param team the team whose turn it is
      */
     public void setTeamTurn(TeamColor team) {
+        if(team != currentTurn){
+            this.enPassantSquare = -1;
+        }
         this.currentTurn = team;
+        clearLegalCache();
     }
 
     /**
@@ -47,6 +107,23 @@ public class ChessGame {
         BLACK
     }
 
+    /**
+     * Enum identifying the state of the game for the team whose turn it is
+     */
+    public enum GameStatus {
+        ONGOING,
+        CHECK,
+        CHECKMATE,
+        STALEMATE,
+        INSUFFICIENT_MATERIAL,
+        THREEFOLD_REPETITION,
+        FIFTY_MOVE_RULE
+    }
+
+    static TeamColor otherTeam(TeamColor team) {
+        return team == TeamColor.WHITE ? TeamColor.BLACK : TeamColor.WHITE;
+    }
+
     /**
      * Gets a valid moves for a piece at the given location
      *
@@ -57,28 +134,94 @@ public class ChessGame {
     public Collection<ChessMove> validMoves(ChessPosition startPosition) {
         // get the piece from the start position
         ChessPiece piece = board.getPiece(startPosition);
-        List<ChessMove> valid = new ArrayList<>();
         //check to see if the piece is null(if it is return null)
         if(piece == null){
             return null;
         }
-        //get all the pieceMoves for that piece:
-        Collection<ChessMove> possibleMoves = piece.pieceMoves(board, startPosition);
-        //for each move:
-        for(ChessMove move:possibleMoves){
-            ChessBoard newBoard = makeCopy();
-            ChessPiece newPiece = this.movePiece(newBoard,move);
-            if(!isCopyInCheck(newPiece.getTeamColor(),newBoard)){
-                valid.add(move);
+        //pick this piece's moves out of the team's cached legal moves
+        int from = ChessBoard.squareOf(startPosition);
+        MoveList legal = cachedLegalMoves(piece.getTeamColor());
+        List<ChessMove> valid = new ArrayList<>();
+        for(int i = 0; i < legal.size(); i++){
+            if(PackedMove.from(legal.get(i)) == from){
+                valid.add(PackedMove.toChessMove(legal.get(i)));
             }
         }
+        return valid;
+    }
 
+    /**
+     * Fills a list with every legal move of the team whose turn it is,
+     * without allocating anything per move
+     *
+     * @param moves the list to clear and fill
+     */
+    public void legalMoves(MoveList moves) {
+        moves.clear();
+        generate(currentTurn, moves);
+        removeIllegal(currentTurn, moves);
+    }
 
-        //check if your own king is in check after the move
-        //if not in check, keep the move; if in check, discard it
-        //return the filtered collection of valid moves.
-        return valid;
+    //pseudo-legal moves including castling, which needs the rights kept here
+    private void generate(TeamColor team, MoveList moves) {
+        MoveGenerator.generate(board, team, enPassantFor(team), moves);
+        addCastlingMoves(team, moves);
+    }
+
+    /**
+     * Adds the castling moves the rights allow. The king may not be in
+     * check or pass over an attacked square; landing in check is caught by
+     * removeIllegal like any other move.
+     */
+    private void addCastlingMoves(TeamColor team, MoveList moves) {
+        boolean white = team == TeamColor.WHITE;
+        int kingSide = white ? WHITE_KINGSIDE : BLACK_KINGSIDE;
+        int queenSide = white ? WHITE_QUEENSIDE : BLACK_QUEENSIDE;
+        if((castlingRights & (kingSide | queenSide)) == 0){
+            return;
+        }
+        int king = white ? WHITE_KING_HOME : BLACK_KING_HOME;
+        //the rights can be stale if the board was edited directly, so check the pieces too
+        if(!ChessPiece.of(team, ChessPiece.PieceType.KING).equals(board.getPiece(king))){
+            return;
+        }
+        TeamColor enemy = otherTeam(team);
+        if(Attacks.isSquareAttacked(board, king, enemy)){
+            return;
+        }
+        ChessPiece rook = ChessPiece.of(team, ChessPiece.PieceType.ROOK);
+        long occupied = board.getOccupied();
+        if((castlingRights & kingSide) != 0 && rook.equals(board.getPiece(king + 3))
+                && (occupied & (0b11L << (king + 1))) == 0
+                && !Attacks.isSquareAttacked(board, king + 1, enemy)){
+            moves.add(PackedMove.encode(king, king + 2, null, PackedMove.CASTLE));
+        }
+        if((castlingRights & queenSide) != 0 && rook.equals(board.getPiece(king - 4))
+                && (occupied & (0b111L << (king - 3))) == 0
+                && !Attacks.isSquareAttacked(board, king - 1, enemy)){
+            moves.add(PackedMove.encode(king, king - 2, null, PackedMove.CASTLE));
+        }
+    }
+
+    private void removeIllegal(TeamColor team, MoveList moves) {
+        int kept = 0;
+        for(int i = 0; i < moves.size(); i++){
+            int move = moves.get(i);
+            if(isLegal(team, move)){
+                moves.set(kept++, move);
+            }
+        }
+        moves.truncate(kept);
+    }
+
+    //make the move on the board, look for check, then take it back
+    private boolean isLegal(TeamColor team, int move) {
+        applyMove(move, scratchUndo);
+        boolean legal = !isInCheck(team);
+        undoMove(scratchUndo);
+        return legal;
     }
+
     /**
      * Makes a move in a chess game
      *
@@ -86,6 +229,9 @@ public class ChessGame {
      * @throws InvalidMoveException if move is invalid
      */
     public void makeMove(ChessMove move) throws InvalidMoveException {
+        if(!isOnBoard(move.getStartPosition())){
+            throw new InvalidMoveException();
+        }
         ChessPiece piece = board.getPiece(move.getStartPosition());
         if(piece == null){
             throw new InvalidMoveException();
@@ -93,37 +239,329 @@ public class ChessGame {
         if(piece.getTeamColor() != this.getTeamTurn()){
             throw new InvalidMoveException();
         }
-        Collection<ChessMove> validMoves = validMoves(move.getStartPosition());
-        if(!validMoves.contains(move)){
+        if(!isOnBoard(move.getEndPosition())){
+            throw new InvalidMoveException();
+        }
+        int packed = PackedMove.encode(move);
+        if(!cachedLegalMoves(currentTurn).contains(packed)){
             throw new InvalidMoveException();
         }
 
-        ChessPiece movedPiece = this.movePiece(board,move);
-            //Switch the turn to the other team
+        applyMove(packed, new MoveUndo());
+        clearLegalCache();
+    }
 
+    /**
+     * Finds the legal move written in standard algebraic notation, such as
+     * "e4", "Nbd7", "exd8=Q+" or "O-O", for the team whose turn it is.
+     * The move is looked up in the cached legal moves, so it is valid if
+     * this returns.
+     *
+     * @param san the move in SAN
+     * @return the move it stands for
+     * @throws InvalidMoveException if no legal move matches or the move is ambiguous
+     */
+    public ChessMove parseSan(String san) throws InvalidMoveException {
+        return PackedMove.toChessMove(San.parse(board, currentTurn, cachedLegalMoves(currentTurn), san));
+    }
 
-        if(movedPiece.getTeamColor() == TeamColor.WHITE){
-            setTeamTurn(TeamColor.BLACK);
+    /**
+     * Writes a legal move of the team whose turn it is in standard algebraic
+     * notation, such as "Nbd7", "exd8=Q+" or "O-O-O#". Disambiguation uses
+     * the cached legal moves, and the check mark comes from making the move
+     * and taking it back.
+     *
+     * @param move the move to write
+     * @return the move in SAN
+     * @throws InvalidMoveException if the move is not legal here
+     */
+    public String toSan(ChessMove move) throws InvalidMoveException {
+        MoveList legal = cachedLegalMoves(currentTurn);
+        if(!isOnBoard(move.getStartPosition()) || !isOnBoard(move.getEndPosition())
+                || !legal.contains(PackedMove.encode(move))){
+            throw new InvalidMoveException("Not a legal move: " + move);
         }
-        if(movedPiece.getTeamColor() == TeamColor.BLACK){
-            setTeamTurn(TeamColor.WHITE);
+        int packed = PackedMove.encode(move);
+        StringBuilder san = new StringBuilder(8);
+        San.format(board, legal, packed, san);
+
+        TeamColor opponent = otherTeam(currentTurn);
+        MoveUndo undo = applyMove(packed, new MoveUndo());
+        if(isInCheck(opponent)){
+            san.append(hasLegalMove(opponent) ? '+' : '#');
         }
+        undoMove(undo);
+        return san.toString();
+    }
 
+    /**
+     * Reads a move in UCI notation, such as "e2e4" or "e7e8q", and checks
+     * that it is legal for the team whose turn it is
+     *
+     * @param uci the move in UCI notation
+     * @return the move
+     * @throws InvalidMoveException if the text is not a move or the move is not legal
+     */
+    public ChessMove parseUci(String uci) throws InvalidMoveException {
+        ChessMove move;
+        try{
+            move = ChessMove.fromUci(uci);
+        }
+        catch(IllegalArgumentException e){
+            throw new InvalidMoveException(e.getMessage());
+        }
+        if(!cachedLegalMoves(currentTurn).contains(PackedMove.encode(move))){
+            throw new InvalidMoveException("Not a legal move: " + uci);
+        }
+        return move;
     }
 
-    private ChessPiece movePiece(ChessBoard board, ChessMove move) {
-        ChessPosition start = move.getStartPosition();
-        ChessPiece newPiece = board.getPiece(start);
-        board.addPiece(start,null);
+    /**
+     * Holds what is needed to take back a move made with applyMove
+     */
+    public static class MoveUndo {
+        private int from;
+        private int to;
+        private ChessPiece moved;
+        private ChessPiece captured;
+        private ChessPiece.PieceType promotion;
+        private TeamColor turn;
+        private int castlingRights;
+        private int enPassantSquare;
+        private int halfmoveClock;
+        //where the captured piece stood, only different from to for en passant
+        private int capturedSquare;
+        //where the rook went when the move castled, -1 otherwise
+        private int rookFrom;
+        private int rookTo;
+
+        /**
+         * @return the piece that was on the end square before the move, or null
+         */
+        public ChessPiece getCapturedPiece() {
+            return captured;
+        }
 
-        if(move.getPromotionPiece() != null){
-            ChessPiece.PieceType promotion = move.getPromotionPiece();
-            board.addPiece(move.getEndPosition(),new ChessPiece(newPiece.getTeamColor(),promotion));
+        /**
+         * @return the type the pawn was promoted to, or null if no promotion
+         */
+        public ChessPiece.PieceType getPromotionPiece() {
+            return promotion;
+        }
+
+        /**
+         * @return whose turn it was before the move
+         */
+        public TeamColor getTeamTurn() {
+            return turn;
+        }
+    }
+
+    /**
+     * Makes a move on this game's board in place without checking that it is
+     * legal, then passes the turn to the other team. Pass the result to
+     * undoMove to restore the previous position.
+     *
+     * @param move chess move to perform
+     * @return the record needed to undo the move
+     * @throws IllegalArgumentException if there is no piece on the start square
+     */
+    public MoveUndo applyMove(ChessMove move) {
+        return applyMove(PackedMove.encode(move), new MoveUndo());
+    }
+
+    /**
+     * Takes back a move made with applyMove. Moves have to be undone in the
+     * reverse order they were made.
+     *
+     * @param undo the record returned when the move was made
+     */
+    public void undoMove(MoveUndo undo) {
+        board.setPiece(undo.from, undo.moved);
+        if(undo.capturedSquare != undo.to){
+            board.setPiece(undo.to, null);
+        }
+        board.setPiece(undo.capturedSquare, undo.captured);
+        if(undo.rookFrom >= 0){
+            board.setPiece(undo.rookFrom, board.getPiece(undo.rookTo));
+            board.setPiece(undo.rookTo, null);
+        }
+        currentTurn = undo.turn;
+        castlingRights = undo.castlingRights;
+        enPassantSquare = undo.enPassantSquare;
+        halfmoveClock = undo.halfmoveClock;
+        historySize--;
+        if(undo.moved.getTeamColor() == TeamColor.BLACK){
+            fullmoveNumber--;
+        }
+    }
+
+    /**
+     * Makes a packed move on this game's board in place without checking that
+     * it is legal, filling a caller owned undo record so nothing is allocated.
+     *
+     * @param move packed move to perform (see PackedMove)
+     * @param undo record to fill, pass it to undoMove afterwards
+     * @return the filled undo record
+     * @throws IllegalArgumentException if there is no piece on the start square
+     */
+    public MoveUndo applyMove(int move, MoveUndo undo) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        ChessPiece moved = board.getPiece(from);
+        //fail before anything changes so the history stays in step with the board
+        if(moved == null){
+            throw new IllegalArgumentException("No piece to move on " + ChessPosition.of(from));
+        }
+        pushKey(getHashKey());
+        undo.from = from;
+        undo.to = to;
+        undo.moved = moved;
+        undo.captured = board.getPiece(to);
+        undo.promotion = PackedMove.promotion(move);
+        undo.turn = currentTurn;
+        undo.castlingRights = castlingRights;
+        undo.rookFrom = -1;
+        undo.enPassantSquare = enPassantSquare;
+        undo.capturedSquare = to;
+        undo.halfmoveClock = halfmoveClock;
+
+        boolean pawn = moved.getPieceType() == ChessPiece.PieceType.PAWN;
+        //a pawn landing on the en passant square takes the pawn beside its start square
+        if(pawn && to == enPassantSquare){
+            undo.capturedSquare = (from & ~7) | (to & 7);
+            undo.captured = board.getPiece(undo.capturedSquare);
+            board.setPiece(undo.capturedSquare, null);
+        }
+        board.setPiece(from, null);
+        if(undo.promotion != null){
+            board.setPiece(to, ChessPiece.of(moved.getTeamColor(), undo.promotion));
         }
         else{
-            board.addPiece(move.getEndPosition(),newPiece);
+            board.setPiece(to, moved);
+        }
+        //a king moving two columns is castling, bring the rook over to the square it crossed
+        if(moved.getPieceType() == ChessPiece.PieceType.KING && Math.abs(to - from) == 2){
+            undo.rookFrom = to > from ? from + 3 : from - 4;
+            undo.rookTo = (from + to) / 2;
+            board.setPiece(undo.rookTo, board.getPiece(undo.rookFrom));
+            board.setPiece(undo.rookFrom, null);
+        }
+        //moving the king or a rook, or capturing a rook at home, loses the matching rights
+        castlingRights &= CASTLING_MASK[from] & CASTLING_MASK[to];
+        halfmoveClock = pawn || undo.captured != null ? 0 : halfmoveClock + 1;
+        if(moved.getTeamColor() == TeamColor.BLACK){
+            fullmoveNumber++;
+        }
+        //a double push opens en passant for one move, but only if an enemy pawn can use it
+        enPassantSquare = -1;
+        if(pawn && Math.abs(to - from) == 16){
+            int passed = (from + to) / 2;
+            TeamColor color = moved.getTeamColor();
+            if((Attacks.PAWN_ATTACKS[color.ordinal()][passed]
+                    & board.getPieceSet(otherTeam(color), ChessPiece.PieceType.PAWN)) != 0){
+                enPassantSquare = passed;
+            }
+        }
+        //Switch the turn to the other team
+        currentTurn = otherTeam(moved.getTeamColor());
+        return undo;
+    }
+
+    private void pushKey(long key) {
+        if(historySize == keyHistory.length){
+            keyHistory = Arrays.copyOf(keyHistory, historySize * 2);
+        }
+        keyHistory[historySize++] = key;
+    }
+
+    /**
+     * Determines if the current position has come up at least twice before
+     * with the same side to move. Only positions since the last capture or
+     * pawn move are looked at, since none before it can come back.
+     *
+     * @return True if the position has occurred three times
+     */
+    public boolean isThreefoldRepetition() {
+        long key = getHashKey();
+        int earliest = Math.max(0, historySize - halfmoveClock);
+        int seen = 1;
+        //the same side is to move every second ply
+        for(int i = historySize - 2; i >= earliest; i -= 2){
+            if(keyHistory[i] == key && ++seen == 3){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Determines if neither team has the pieces left to ever checkmate:
+     * king against king, king and one knight or bishop against a lone king,
+     * or only bishops left that all stand on squares of one color.
+     *
+     * @return True if the position is a dead draw for lack of material
+     */
+    public boolean isInsufficientMaterial() {
+        int total = board.getMaterial(TeamColor.WHITE) + board.getMaterial(TeamColor.BLACK);
+        //a single minor piece at most, the totals alone answer this (a pawn is worth less)
+        if(total <= ChessBoard.MINOR_PIECE_VALUE){
+            return (board.getPieceSet(TeamColor.WHITE, ChessPiece.PieceType.PAWN)
+                    | board.getPieceSet(TeamColor.BLACK, ChessPiece.PieceType.PAWN)) == 0;
+        }
+        long bishops = board.getPieceSet(TeamColor.WHITE, ChessPiece.PieceType.BISHOP)
+                | board.getPieceSet(TeamColor.BLACK, ChessPiece.PieceType.BISHOP);
+        long kings = board.getPieceSet(TeamColor.WHITE, ChessPiece.PieceType.KING)
+                | board.getPieceSet(TeamColor.BLACK, ChessPiece.PieceType.KING);
+        if((bishops | kings) != board.getOccupied()){
+            return false;
+        }
+        return (bishops & ChessBoard.LIGHT_SQUARES) == 0 || (bishops & ~ChessBoard.LIGHT_SQUARES) == 0;
+    }
+
+    /**
+     * @return True if a hundred plies have passed without a capture or a
+     * pawn move
+     */
+    public boolean isFiftyMoveDraw() {
+        return halfmoveClock >= 100;
+    }
+
+    /**
+     * @return how many plies have passed since the last capture or pawn move
+     */
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    /**
+     * @return the move number, starting at 1 and going up after each black move
+     */
+    public int getFullmoveNumber() {
+        return fullmoveNumber;
+    }
+
+    //the en passant square index, -1 if none, for serializers
+    int enPassantSquare() {
+        return enPassantSquare;
+    }
+
+    void setMoveCounters(int halfmoveClock, int fullmoveNumber) {
+        this.halfmoveClock = halfmoveClock;
+        this.fullmoveNumber = fullmoveNumber;
+    }
+
+    //keys of the positions that could still repeat, oldest first, for serializers
+    long[] recentKeys() {
+        int count = Math.min(halfmoveClock, historySize);
+        return Arrays.copyOfRange(keyHistory, historySize - count, historySize);
+    }
+
+    void setRecentKeys(long[] keys) {
+        historySize = 0;
+        for(long key : keys){
+            pushKey(key);
         }
-        return newPiece;
     }
 
     /**
@@ -133,10 +571,12 @@ public class ChessGame {
      * @return True if the specified team is in check
      */
     public boolean isInCheck(TeamColor teamColor) {
-        ChessPosition kingPosition = findKing(teamColor);
-
-        //loop through the board
-        return goThroughBoard(teamColor, kingPosition, board);
+        int kingSquare = board.kingSquare(teamColor);
+        if(kingSquare < 0){
+            return false;
+        }
+        //look outward from the king instead of generating every enemy move
+        return Attacks.isSquareAttacked(board, kingSquare, otherTeam(teamColor));
     }
 
     /**
@@ -167,22 +607,134 @@ public class ChessGame {
 
     }
 
-    private boolean canMakeMove(TeamColor teamColor) {
-        for(int r=1; r<=8;r++){
-            for(int c=1; c<=8; c++){
-                ChessPosition position = new ChessPosition(r,c);
-                ChessPiece piece = board.getPiece(position);
-                if(piece != null && piece.getTeamColor() == teamColor){
-                    Collection<ChessMove> valid = validMoves(position);
-                    if(!valid.isEmpty()){
-                        return false;
-                    }
+    /**
+     * Works out check, checkmate, stalemate and the draw rules for the team
+     * whose turn it is in one pass: check is tested once and the search for a
+     * legal move stops at the first one found. Checkmate on the hundredth
+     * ply still counts as checkmate.
+     *
+     * @return the status of the game for the side to move
+     */
+    public GameStatus getGameStatus() {
+        boolean inCheck = isInCheck(currentTurn);
+        if(!hasLegalMove(currentTurn)){
+            return inCheck ? GameStatus.CHECKMATE : GameStatus.STALEMATE;
+        }
+        if(isInsufficientMaterial()){
+            return GameStatus.INSUFFICIENT_MATERIAL;
+        }
+        if(isFiftyMoveDraw()){
+            return GameStatus.FIFTY_MOVE_RULE;
+        }
+        if(isThreefoldRepetition()){
+            return GameStatus.THREEFOLD_REPETITION;
+        }
+        return inCheck ? GameStatus.CHECK : GameStatus.ONGOING;
+    }
 
+    /**
+     * Looks for any legal move of a team and stops at the first one found.
+     * The cheapest likely candidates go first: king moves, then (when in
+     * check) captures of the checking piece, then everything else one piece
+     * at a time. In double check only king moves are tried. Castling is never
+     * needed: whenever it is legal, so is the king's one step toward the rook.
+     *
+     * @param team the team to look at
+     * @return True if the team has at least one legal move
+     */
+    public boolean hasLegalMove(TeamColor team) {
+        int index = team.ordinal();
+        if(legalCacheValid[index] && legalCacheKeys[index] == getHashKey()){
+            return !legalCache[index].isEmpty();
+        }
+        MoveList moves = scratchMoves;
+        int kingSquare = board.kingSquare(team);
+        if(kingSquare >= 0){
+            moves.clear();
+            MoveGenerator.generate(board, kingSquare, board.getPiece(kingSquare), moves);
+            if(anyLegal(team, moves, -1L)){
+                return true;
+            }
+        }
+        long others = board.getTeamSet(team);
+        if(kingSquare >= 0){
+            others &= ~(1L << kingSquare);
+        }
+
+        long checkers = kingSquare < 0 ? 0 : Attacks.attackersOf(board, kingSquare, otherTeam(team));
+        if(checkers == 0){
+            //not in check, almost any piece will do, so generate one piece at a time
+            while(others != 0){
+                int square = Long.numberOfTrailingZeros(others);
+                others &= others - 1;
+                moves.clear();
+                MoveGenerator.generate(board, square, board.getPiece(square), enPassantFor(team), moves);
+                if(anyLegal(team, moves, -1L)){
+                    return true;
                 }
+            }
+            return false;
+        }
+        if(Long.bitCount(checkers) > 1){
+            //double check, only the king can get out of it
+            return false;
+        }
+        moves.clear();
+        while(others != 0){
+            int square = Long.numberOfTrailingZeros(others);
+            others &= others - 1;
+            MoveGenerator.generate(board, square, board.getPiece(square), enPassantFor(team), moves);
+        }
+        //captures of the checker first, then blocks
+        return anyLegal(team, moves, checkers) || anyLegal(team, moves, ~checkers);
+    }
 
+    //tests the moves whose end square is in targets
+    private boolean anyLegal(TeamColor team, MoveList moves, long targets) {
+        for(int i = 0; i < moves.size(); i++){
+            int move = moves.get(i);
+            if((targets & (1L << PackedMove.to(move))) != 0 && isLegal(team, move)){
+                return true;
             }
         }
-        return true;
+        return false;
+    }
+
+    //the en passant square only belongs to the side to move
+    private int enPassantFor(TeamColor team) {
+        return team == currentTurn ? enPassantSquare : -1;
+    }
+
+    private boolean canMakeMove(TeamColor teamColor) {
+        return !hasLegalMove(teamColor);
+    }
+
+    /**
+     * Gets every legal move of a team, computing them only when the position
+     * changed since the last call. The key covers the board and the side to
+     * move, so edits made straight to the board are noticed too.
+     */
+    private MoveList cachedLegalMoves(TeamColor team) {
+        int index = team.ordinal();
+        long key = getHashKey();
+        MoveList moves = legalCache[index];
+        if(!legalCacheValid[index] || legalCacheKeys[index] != key){
+            moves.clear();
+            generate(team, moves);
+            removeIllegal(team, moves);
+            legalCacheKeys[index] = key;
+            legalCacheValid[index] = true;
+        }
+        return moves;
+    }
+
+    private void clearLegalCache() {
+        legalCacheValid[0] = false;
+        legalCacheValid[1] = false;
+    }
+
+    private static boolean isOnBoard(ChessPosition position) {
+        return position.getRow() >= 1 && position.getRow() <= 8 && position.getColumn() >= 1 && position.getColumn() <= 8;
     }
 
     /**
@@ -192,91 +744,246 @@ public class ChessGame {
      */
     public void setBoard(ChessBoard board) {
         this.board = board;
+        this.castlingRights = castlingRightsOf(board);
+        this.enPassantSquare = -1;
+        this.halfmoveClock = 0;
+        this.fullmoveNumber = 1;
+        this.historySize = 0;
+        clearLegalCache();
     }
 
     /**
-     * Gets the current chessboard
+     * @return the castling rights still available, a combination of
+     * WHITE_KINGSIDE, WHITE_QUEENSIDE, BLACK_KINGSIDE and BLACK_QUEENSIDE
+     */
+    public int getCastlingRights() {
+        return castlingRights;
+    }
+
+    /**
+     * Overrides the castling rights, for positions whose move history is
+     * known (setBoard can only guess from where the pieces stand)
      *
-     * @return the chessboard
+     * @param castlingRights a combination of the castling rights bits
      */
-    public ChessBoard getBoard() {
-        return board;
+    public void setCastlingRights(int castlingRights) {
+        this.castlingRights = castlingRights & ALL_CASTLING;
+        clearLegalCache();
     }
-    //helper methods
-    private boolean goThroughBoard(TeamColor teamColor, ChessPosition kingPosition, ChessBoard board) {
-        for(int x=1; x<=8; x++){
-            for(int y = 1; y<=8; y++){
-                ChessPosition position = new ChessPosition(x,y);
-                ChessPiece piece = board.getPiece(position);
-
-                //if the position on the board has a piece check if it is an enemy piece
-                if(piece != null && piece.getTeamColor() != teamColor){
-                    //if that is true check if the end position of the piece moves that it can make are the kings position
-                    Collection<ChessMove> possibleMoves = piece.pieceMoves(board, position);
-                    for(ChessMove move:possibleMoves){
-                        ChessPosition p = move.getEndPosition();
-                        if(p.equals(kingPosition)){
-                            return true;
-                        }
-                    }
-                }
+
+    /**
+     * @return the square the side to move could capture onto en passant, or
+     * null if the last move was not a double pawn push an enemy pawn can take
+     */
+    public ChessPosition getEnPassantTarget() {
+        return enPassantSquare < 0 ? null : ChessPosition.of(enPassantSquare);
+    }
+
+    /**
+     * Sets the square the side to move may capture onto en passant, for
+     * positions whose last move is known (setBoard clears it). A square no
+     * pawn can capture onto is dropped, matching what makeMove records.
+     *
+     * @param target the square the pawn passed over, or null for none
+     * @throws IllegalArgumentException if no enemy pawn could just have
+     *                                  passed over the square
+     */
+    public void setEnPassantTarget(ChessPosition target) {
+        if(target == null){
+            this.enPassantSquare = -1;
+        }
+        else{
+            int square = isOnBoard(target) ? ChessBoard.squareOf(target) : -1;
+            if(!isEnPassantSquare(board, currentTurn, square)){
+                throw new IllegalArgumentException("Not an en passant square for " + currentTurn + ": " + target);
             }
+            this.enPassantSquare = canCaptureEnPassant(board, currentTurn, square) ? square : -1;
         }
-        return false;
+        clearLegalCache();
     }
-    private ChessPosition findKing(TeamColor teamColor) {
-        for(int x = 1; x<=8; x++){
-            for(int y = 1; y<=8; y++){
-                ChessPosition position = new ChessPosition(x,y);
-                ChessPiece piece = board.getPiece(position);
 
-                if(piece != null && piece.getTeamColor() == teamColor && piece.getPieceType() == ChessPiece.PieceType.KING){
-                    return position;
+    //the square a double push passed over: empty, on the mover's sixth rank, with the enemy pawn just past it
+    private static boolean isEnPassantSquare(ChessBoard board, TeamColor side, int square) {
+        boolean white = side == TeamColor.WHITE;
+        if(square < 0 || ChessBoard.rowOf(square) != (white ? 6 : 3) || board.getPiece(square) != null){
+            return false;
+        }
+        ChessPiece pushed = board.getPiece(white ? square - 8 : square + 8);
+        return ChessPiece.of(otherTeam(side), ChessPiece.PieceType.PAWN).equals(pushed);
+    }
 
-                }
+    private static boolean canCaptureEnPassant(ChessBoard board, TeamColor side, int square) {
+        return (Attacks.PAWN_ATTACKS[otherTeam(side).ordinal()][square]
+                & board.getPieceSet(side, ChessPiece.PieceType.PAWN)) != 0;
+    }
 
+    //a board without history keeps every right whose king and rook are still at home
+    private static int castlingRightsOf(ChessBoard board) {
+        int rights = 0;
+        for(TeamColor team : TeamColor.values()){
+            boolean white = team == TeamColor.WHITE;
+            int king = white ? WHITE_KING_HOME : BLACK_KING_HOME;
+            if(!ChessPiece.of(team, ChessPiece.PieceType.KING).equals(board.getPiece(king))){
+                continue;
+            }
+            ChessPiece rook = ChessPiece.of(team, ChessPiece.PieceType.ROOK);
+            if(rook.equals(board.getPiece(king + 3))){
+                rights |= white ? WHITE_KINGSIDE : BLACK_KINGSIDE;
+            }
+            if(rook.equals(board.getPiece(king - 4))){
+                rights |= white ? WHITE_QUEENSIDE : BLACK_QUEENSIDE;
             }
         }
-        return null;
+        return rights;
     }
-    private boolean isCopyInCheck(TeamColor teamColor, ChessBoard board) {
-        ChessPosition kingPosition = findNewKing(teamColor, board);
 
-        //loop through the board
-        return goThroughBoard(teamColor, kingPosition, board);
+    /**
+     * Gets the current chessboard
+     *
+     * @return the chessboard
+     */
+    public ChessBoard getBoard() {
+        return board;
     }
-    private ChessPosition findNewKing(TeamColor teamColor, ChessBoard board) {
-        for(int x = 1; x<=8; x++){
-            for(int y = 1; y<=8; y++){
-                ChessPosition position = new ChessPosition(x,y);
-                ChessPiece piece = board.getPiece(position);
 
-                if(piece != null && piece.getTeamColor() == teamColor && piece.getPieceType() == ChessPiece.PieceType.KING){
-                    return position;
-
-                }
+    /**
+     * Builds a game from a FEN string such as
+     * "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1". Fields
+     * left off the end default to white to move, castling rights taken from
+     * where the kings and rooks stand (as setBoard does), no en passant
+     * square and clocks 0 and 1. The en passant square has to be one the
+     * last move could have passed over (see setEnPassantTarget); one no pawn
+     * can capture onto is dropped, matching what makeMove records.
+     *
+     * @param fen the position to load
+     * @return a new game in that position
+     * @throws IllegalArgumentException if the string is not valid FEN
+     */
+    public static ChessGame fromFen(String fen) {
+        //start and end index of each space separated field, so no substrings are made
+        int[] bounds = new int[12];
+        int fields = 0;
+        int i = 0;
+        while(fields < 6){
+            while(i < fen.length() && fen.charAt(i) == ' '){
+                i++;
+            }
+            if(i == fen.length()){
+                break;
+            }
+            bounds[2 * fields] = i;
+            while(i < fen.length() && fen.charAt(i) != ' '){
+                i++;
+            }
+            bounds[2 * fields + 1] = i;
+            fields++;
+        }
+        if(fields == 0){
+            throw new IllegalArgumentException("Empty FEN");
+        }
 
+        ChessGame game = new ChessGame(ChessBoard.fromFen(fen, bounds[0], bounds[1]), TeamColor.WHITE);
+        if(fields > 1){
+            char side = bounds[3] - bounds[2] == 1 ? fen.charAt(bounds[2]) : '?';
+            if(side != 'w' && side != 'b'){
+                throw new IllegalArgumentException("Bad FEN side to move: " + fen);
             }
+            game.currentTurn = side == 'w' ? TeamColor.WHITE : TeamColor.BLACK;
         }
-        return null;
-    }
-
-    private ChessBoard makeCopy() {
-        //create a new empty board
-        ChessBoard copy = new ChessBoard();
-        // for row, col in this.board check to see if there is a piece at each position
-        for(int r = 1; r<=8; r++){
-            for(int c = 1; c<=8; c++){
-                ChessPosition position = new ChessPosition(r,c);
-                if(this.board.getPiece(position) != null){
-                    // create a new chess piece object that has the same properties as the original
-                    ChessPiece old = this.board.getPiece(position);
-                    ChessPiece newPiece = new ChessPiece(old.getTeamColor(),old.getPieceType());
-                    copy.addPiece(position, newPiece);
-                }
+        if(fields > 2){
+            game.castlingRights = parseCastling(fen, bounds[4], bounds[5]);
+        }
+        if(fields > 3 && !(bounds[7] - bounds[6] == 1 && fen.charAt(bounds[6]) == '-')){
+            char file = fen.charAt(bounds[6]);
+            char rank = bounds[7] - bounds[6] == 2 ? fen.charAt(bounds[6] + 1) : '?';
+            int square = file < 'a' || file > 'h' || rank < '1' || rank > '8'
+                    ? -1 : ChessBoard.squareOf(rank - '0', file - 'a' + 1);
+            if(!isEnPassantSquare(game.board, game.currentTurn, square)){
+                throw new IllegalArgumentException("Bad FEN en passant square: " + fen);
+            }
+            if(canCaptureEnPassant(game.board, game.currentTurn, square)){
+                game.enPassantSquare = square;
+            }
+        }
+        try{
+            if(fields > 4){
+                game.halfmoveClock = Integer.parseInt(fen, bounds[8], bounds[9], 10);
             }
+            if(fields > 5){
+                game.fullmoveNumber = Integer.parseInt(fen, bounds[10], bounds[11], 10);
+            }
+        }
+        catch(NumberFormatException e){
+            throw new IllegalArgumentException("Bad FEN move counters: " + fen, e);
+        }
+        if(game.halfmoveClock < 0 || game.fullmoveNumber < 1){
+            throw new IllegalArgumentException("Bad FEN move counters: " + fen);
+        }
+        game.clearLegalCache();
+        return game;
+    }
+
+    private static int parseCastling(String fen, int start, int end) {
+        if(end - start == 1 && fen.charAt(start) == '-'){
+            return 0;
+        }
+        int rights = 0;
+        for(int i = start; i < end; i++){
+            rights |= switch(fen.charAt(i)){
+                case 'K' -> WHITE_KINGSIDE;
+                case 'Q' -> WHITE_QUEENSIDE;
+                case 'k' -> BLACK_KINGSIDE;
+                case 'q' -> BLACK_QUEENSIDE;
+                default -> throw new IllegalArgumentException("Bad FEN castling rights: " + fen);
+            };
+        }
+        return rights;
+    }
+
+    /**
+     * @return the position as a FEN string with all six fields
+     */
+    public String toFen() {
+        StringBuilder fen = new StringBuilder(90);
+        board.appendFen(fen);
+        fen.append(currentTurn == TeamColor.WHITE ? " w " : " b ");
+        if(castlingRights == 0){
+            fen.append('-');
+        }
+        if((castlingRights & WHITE_KINGSIDE) != 0){
+            fen.append('K');
+        }
+        if((castlingRights & WHITE_QUEENSIDE) != 0){
+            fen.append('Q');
+        }
+        if((castlingRights & BLACK_KINGSIDE) != 0){
+            fen.append('k');
+        }
+        if((castlingRights & BLACK_QUEENSIDE) != 0){
+            fen.append('q');
+        }
+        fen.append(' ');
+        if(enPassantSquare < 0){
+            fen.append('-');
+        }
+        else{
+            fen.append((char) ('a' + ChessBoard.columnOf(enPassantSquare) - 1)).append(ChessBoard.rowOf(enPassantSquare));
         }
-        return copy;
+        fen.append(' ').append(halfmoveClock).append(' ').append(fullmoveNumber);
+        return fen.toString();
+    }
+
+    /**
+     * @return the 64 bit Zobrist key of the position: the board's key with
+     * the side to move, castling rights and en passant column mixed in.
+     * Constant time, nothing is recomputed.
+     */
+    public long getHashKey() {
+        long key = board.getHashKey() ^ Zobrist.CASTLING[castlingRights];
+        if(enPassantSquare >= 0){
+            key ^= Zobrist.EN_PASSANT[enPassantSquare & 7];
+        }
+        return currentTurn == TeamColor.BLACK ? key ^ Zobrist.BLACK_TO_MOVE : key;
     }
 
     @Override
@@ -285,11 +992,15 @@ public class ChessGame {
             return false;
         }
         ChessGame chessGame = (ChessGame) o;
-        return Objects.equals(board, chessGame.board) && currentTurn == chessGame.currentTurn;
+        if (getHashKey() != chessGame.getHashKey()) {
+            return false;
+        }
+        return Objects.equals(board, chessGame.board) && currentTurn == chessGame.currentTurn
+                && castlingRights == chessGame.castlingRights && enPassantSquare == chessGame.enPassantSquare;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(board, currentTurn);
+        return Zobrist.fold(getHashKey());
     }
 }
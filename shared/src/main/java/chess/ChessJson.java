@@ -0,0 +1,160 @@
+package chess;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Base64;
+
+/**
+ * Streaming Gson adapters that send games, boards and moves as short strings
+ * instead of letting Gson reflect over the board's arrays:
+ * <ul>
+ * <li>ChessMove: UCI notation, "e2e4" or "e7e8q" (see ChessMove.toUci)</li>
+ * <li>ChessBoard: the FEN piece placement field</li>
+ * <li>ChessGame: {"fen": full FEN, "zobrist": key version, "history":
+ * keys of the positions that could still repeat}</li>
+ * </ul>
+ * Use create() for a ready Gson, or register(builder) to add the adapters
+ * to an existing builder, for example the one returned by
+ * TestFactory.getGsonBuilder in the gameplay passoff tests.
+ */
+public final class ChessJson {
+    private ChessJson() {
+    }
+
+    /**
+     * Adds the ChessGame, ChessBoard and ChessMove adapters to a builder
+     *
+     * @param builder the builder to add to
+     * @return the same builder
+     */
+    public static GsonBuilder register(GsonBuilder builder) {
+        return builder.registerTypeAdapter(ChessGame.class, new GameAdapter().nullSafe())
+                .registerTypeAdapter(ChessBoard.class, new BoardAdapter().nullSafe())
+                .registerTypeAdapter(ChessMove.class, new MoveAdapter().nullSafe());
+    }
+
+    /**
+     * @return a Gson with every chess adapter registered
+     */
+    public static Gson create() {
+        return register(new GsonBuilder()).create();
+    }
+
+    /**
+     * Writes a move in UCI notation
+     */
+    public static final class MoveAdapter extends TypeAdapter<ChessMove> {
+        @Override
+        public void write(JsonWriter out, ChessMove move) throws IOException {
+            out.value(move.toUci());
+        }
+
+        @Override
+        public ChessMove read(JsonReader in) throws IOException {
+            try {
+                return ChessMove.fromUci(in.nextString());
+            }
+            catch (IllegalArgumentException e) {
+                throw new JsonSyntaxException(e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Writes a board as the FEN piece placement field
+     */
+    public static final class BoardAdapter extends TypeAdapter<ChessBoard> {
+        @Override
+        public void write(JsonWriter out, ChessBoard board) throws IOException {
+            out.value(board.toFen());
+        }
+
+        @Override
+        public ChessBoard read(JsonReader in) throws IOException {
+            try {
+                return ChessBoard.fromFen(in.nextString());
+            }
+            catch (IllegalArgumentException e) {
+                throw new JsonSyntaxException(e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Writes a game as its FEN plus the position keys the repetition rule
+     * still needs, so a saved game keeps every rule's state. The keys are
+     * 8 big endian bytes each in one unpadded base64 string, tagged with
+     * the Zobrist key version. Keys from another version are ignored when
+     * read, so repetitions are counted from the loaded position on.
+     */
+    public static final class GameAdapter extends TypeAdapter<ChessGame> {
+        @Override
+        public void write(JsonWriter out, ChessGame game) throws IOException {
+            out.beginObject();
+            out.name("fen").value(game.toFen());
+            long[] keys = game.recentKeys();
+            if (keys.length > 0) {
+                ByteBuffer bytes = ByteBuffer.allocate(keys.length * Long.BYTES);
+                bytes.asLongBuffer().put(keys);
+                out.name("zobrist").value(Zobrist.VERSION);
+                out.name("history").value(Base64.getEncoder().withoutPadding().encodeToString(bytes.array()));
+            }
+            out.endObject();
+        }
+
+        @Override
+        public ChessGame read(JsonReader in) throws IOException {
+            String fen = null;
+            String history = null;
+            int version = -1;
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (name.equals("fen")) {
+                    fen = in.nextString();
+                }
+                else if (name.equals("zobrist") && in.peek() == JsonToken.NUMBER) {
+                    version = in.nextInt();
+                }
+                else if (name.equals("history") && in.peek() == JsonToken.STRING) {
+                    history = in.nextString();
+                }
+                else {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+            if (fen == null) {
+                throw new JsonSyntaxException("ChessGame is missing its fen");
+            }
+            try {
+                ChessGame game = ChessGame.fromFen(fen);
+                if (history != null && version == Zobrist.VERSION) {
+                    game.setRecentKeys(decodeKeys(history));
+                }
+                return game;
+            }
+            catch (IllegalArgumentException e) {
+                throw new JsonSyntaxException(e.getMessage(), e);
+            }
+        }
+
+        private static long[] decodeKeys(String history) {
+            byte[] bytes = Base64.getDecoder().decode(history);
+            if (bytes.length % Long.BYTES != 0) {
+                throw new IllegalArgumentException("ChessGame history is not a whole number of keys");
+            }
+            long[] keys = new long[bytes.length / Long.BYTES];
+            ByteBuffer.wrap(bytes).asLongBuffer().get(keys);
+            return keys;
+        }
+    }
+}
@@ -47,6 +47,75 @@ public class ChessMove {
         return promotionPiece;
     }
 
+    /**
+     * Writes the move in UCI notation: start square, end square and a lower
+     * case promotion letter, such as "e2e4" or "e7e8q"
+     *
+     * @return the move in UCI notation
+     * @throws IllegalArgumentException if a position is off the board
+     */
+    public String toUci() {
+        if (!isOnBoard(startPosition) || !isOnBoard(endPosition)) {
+            throw new IllegalArgumentException("Move is off the board: " + this);
+        }
+        char[] uci = new char[promotionPiece == null ? 4 : 5];
+        uci[0] = (char) ('a' + startPosition.getColumn() - 1);
+        uci[1] = (char) ('0' + startPosition.getRow());
+        uci[2] = (char) ('a' + endPosition.getColumn() - 1);
+        uci[3] = (char) ('0' + endPosition.getRow());
+        if (promotionPiece != null) {
+            uci[4] = switch (promotionPiece) {
+                case QUEEN -> 'q';
+                case BISHOP -> 'b';
+                case KNIGHT -> 'n';
+                case ROOK -> 'r';
+                default -> throw new IllegalArgumentException("Cannot promote to " + promotionPiece);
+            };
+        }
+        return new String(uci);
+    }
+
+    /**
+     * Reads a move in UCI notation, as written by toUci. Only the format is
+     * checked, not whether the move is legal.
+     *
+     * @param uci the move, such as "e2e4" or "e7e8q"
+     * @return the move
+     * @throws IllegalArgumentException if the text is not a UCI move
+     */
+    public static ChessMove fromUci(String uci) {
+        if (uci.length() != 4 && uci.length() != 5) {
+            throw new IllegalArgumentException("Not a UCI move: " + uci);
+        }
+        ChessPosition start = squareAt(uci, 0);
+        ChessPosition end = squareAt(uci, 2);
+        ChessPiece.PieceType promotion = null;
+        if (uci.length() == 5) {
+            promotion = switch (uci.charAt(4)) {
+                case 'q' -> ChessPiece.PieceType.QUEEN;
+                case 'b' -> ChessPiece.PieceType.BISHOP;
+                case 'n' -> ChessPiece.PieceType.KNIGHT;
+                case 'r' -> ChessPiece.PieceType.ROOK;
+                default -> throw new IllegalArgumentException("Not a UCI move: " + uci);
+            };
+        }
+        return new ChessMove(start, end, promotion);
+    }
+
+    private static ChessPosition squareAt(String uci, int index) {
+        char file = uci.charAt(index);
+        char rank = uci.charAt(index + 1);
+        if (file < 'a' || file > 'h' || rank < '1' || rank > '8') {
+            throw new IllegalArgumentException("Not a UCI move: " + uci);
+        }
+        return ChessPosition.of(rank - '0', file - 'a' + 1);
+    }
+
+    private static boolean isOnBoard(ChessPosition position) {
+        return position.getRow() >= 1 && position.getRow() <= 8
+                && position.getColumn() >= 1 && position.getColumn() <= 8;
+    }
+
     @Override
     public String toString() {
         return String.format("%s%s",startPosition,endPosition);
@@ -63,6 +132,7 @@ public class ChessMove {
 
     @Override
     public int hashCode() {
-        return Objects.hash(startPosition, endPosition, promotionPiece);
+        int result = 31 * Objects.hashCode(startPosition) + Objects.hashCode(endPosition);
+        return 31 * result + (promotionPiece == null ? 0 : promotionPiece.ordinal() + 1);
     }
 }
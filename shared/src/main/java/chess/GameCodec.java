@@ -0,0 +1,160 @@
+package chess;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Packs a game's position into a fixed 32 byte record, small enough to store
+ * as a BLOB or send as one websocket binary frame. All values are big endian,
+ * whatever order the buffer is set to.
+ * <pre>
+ * bytes  0-7   occupied squares, bit n = square n (see ChessBoard)
+ * bytes  8-23  a 4 bit piece code (ChessBoard.pieceIndex) per occupied
+ *              square in square order, low nibble first, unused nibbles 0
+ * byte  24     bit 0 black to move, bits 1-4 castling rights
+ * byte  25     en passant square, or 0xFF for none
+ * bytes 26-27  halfmove clock
+ * bytes 28-29  fullmove number
+ * byte  30     format version
+ * byte  31     reserved, 0
+ * </pre>
+ * Only positions with at most 32 pieces and move counters up to 65535 fit,
+ * which covers every real game.
+ * The repetition history is not included.
+ */
+public final class GameCodec {
+    /**
+     * Bytes in one encoded game
+     */
+    public static final int SIZE = 32;
+    private static final int VERSION = 1;
+    private static final int NO_SQUARE = 0xFF;
+    private static final int MAX_COUNTER = 0xFFFF;
+
+    private GameCodec() {
+    }
+
+    /**
+     * @param game the game to encode
+     * @return a new buffer holding the SIZE byte record, ready to read
+     */
+    public static ByteBuffer encode(ChessGame game) {
+        ByteBuffer buffer = ByteBuffer.allocate(SIZE);
+        encode(game, buffer);
+        return buffer.flip();
+    }
+
+    /**
+     * Writes the SIZE byte record at the buffer's position and moves the
+     * position past it
+     *
+     * @param game the game to encode
+     * @param out  the buffer to write to
+     * @throws IllegalArgumentException if the board holds more than 32 pieces
+     *                                  or a move counter is above 65535
+     */
+    public static void encode(ChessGame game, ByteBuffer out) {
+        ChessBoard board = game.getBoard();
+        long occupied = board.getOccupied();
+        if (Long.bitCount(occupied) > 32) {
+            throw new IllegalArgumentException("Only boards with at most 32 pieces can be encoded");
+        }
+        if (game.getHalfmoveClock() > MAX_COUNTER || game.getFullmoveNumber() > MAX_COUNTER) {
+            throw new IllegalArgumentException("Only move counters up to " + MAX_COUNTER + " can be encoded");
+        }
+        ByteOrder order = out.order();
+        out.order(ByteOrder.BIG_ENDIAN);
+        try {
+            out.putLong(occupied);
+            long pieces = occupied;
+            for (int i = 0; i < 16; i++) {
+                int codes = 0;
+                for (int half = 0; half < 2 && pieces != 0; half++) {
+                    int square = Long.numberOfTrailingZeros(pieces);
+                    pieces &= pieces - 1;
+                    ChessPiece piece = board.getPiece(square);
+                    codes |= ChessBoard.pieceIndex(piece.getTeamColor(), piece.getPieceType()) << (4 * half);
+                }
+                out.put((byte) codes);
+            }
+            int flags = (game.getTeamTurn() == ChessGame.TeamColor.BLACK ? 1 : 0) | (game.getCastlingRights() << 1);
+            out.put((byte) flags);
+            int enPassant = game.enPassantSquare();
+            out.put((byte) (enPassant < 0 ? NO_SQUARE : enPassant));
+            out.putShort((short) game.getHalfmoveClock());
+            out.putShort((short) game.getFullmoveNumber());
+            out.put((byte) VERSION);
+            out.put((byte) 0);
+        }
+        finally {
+            out.order(order);
+        }
+    }
+
+    /**
+     * Reads a SIZE byte record at the buffer's position and moves the
+     * position past it. The board is filled straight from the record.
+     *
+     * @param in the buffer to read from
+     * @return a new game in the encoded position
+     * @throws IllegalArgumentException if the record is malformed or too short
+     */
+    public static ChessGame decode(ByteBuffer in) {
+        ByteOrder order = in.order();
+        in.order(ByteOrder.BIG_ENDIAN);
+        try {
+            long occupied = in.getLong();
+            if (Long.bitCount(occupied) > 32) {
+                throw new IllegalArgumentException("Encoded board has more than 32 pieces");
+            }
+            ChessBoard board = new ChessBoard();
+            long pieces = occupied;
+            for (int i = 0; i < 16; i++) {
+                int codes = in.get() & 0xFF;
+                for (int half = 0; half < 2 && pieces != 0; half++) {
+                    int square = Long.numberOfTrailingZeros(pieces);
+                    pieces &= pieces - 1;
+                    int code = (codes >>> (4 * half)) & 0xF;
+                    if (code >= 12) {
+                        throw new IllegalArgumentException("Bad piece code " + code);
+                    }
+                    board.setPiece(square, ChessPiece.of(code));
+                }
+            }
+            int flags = in.get() & 0xFF;
+            int enPassant = in.get() & 0xFF;
+            int halfmoveClock = in.getShort() & MAX_COUNTER;
+            int fullmoveNumber = in.getShort() & MAX_COUNTER;
+            int version = in.get() & 0xFF;
+            in.get();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unknown game record version " + version);
+            }
+            if ((flags & ~0x1F) != 0) {
+                throw new IllegalArgumentException("Bad flags byte " + flags);
+            }
+            if (enPassant != NO_SQUARE && enPassant > 63) {
+                throw new IllegalArgumentException("Bad en passant square " + enPassant);
+            }
+            if (fullmoveNumber < 1) {
+                throw new IllegalArgumentException("Bad fullmove number " + fullmoveNumber);
+            }
+
+            ChessGame game = new ChessGame(board, (flags & 1) != 0 ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE);
+            game.setCastlingRights(flags >>> 1);
+            if (enPassant != NO_SQUARE) {
+                //the same check as FEN: empty, on the side to move's sixth rank, with the pushed pawn past it
+                game.setEnPassantTarget(ChessPosition.of(enPassant));
+            }
+            game.setMoveCounters(halfmoveClock, fullmoveNumber);
+            return game;
+        }
+        catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Game record is shorter than " + SIZE + " bytes", e);
+        }
+        finally {
+            in.order(order);
+        }
+    }
+}
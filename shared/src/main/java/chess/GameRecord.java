@@ -0,0 +1,203 @@
+package chess;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * An append-only record of a game: the FEN it started from plus every move
+ * made since, as packed moves. Any earlier position can be rebuilt by
+ * replaying the first moves, so storing a game only means appending a move
+ * instead of rewriting the whole position.
+ * <p>
+ * The byte form is a header (one length byte and the ASCII starting FEN)
+ * followed by two bytes per move (PackedMove without flags, big endian).
+ * Moves can be written as they are made and simply appended to what is
+ * already stored; reading takes moves until the buffer runs out.
+ */
+public final class GameRecord {
+    private final String startFen;
+    private final MoveList moves = new MoveList(64);
+
+    /**
+     * Starts a record of a game from the normal starting position
+     */
+    public GameRecord() {
+        this(new ChessGame().toFen());
+    }
+
+    /**
+     * Starts a record of a game from the given position
+     *
+     * @param startFen the starting position as FEN
+     * @throws IllegalArgumentException if the FEN is not valid or too long
+     */
+    public GameRecord(String startFen) {
+        //fail now rather than on the first replay
+        ChessGame.fromFen(startFen);
+        if (startFen.length() > 255 || !StandardCharsets.US_ASCII.newEncoder().canEncode(startFen)) {
+            throw new IllegalArgumentException("Starting FEN does not fit a record: " + startFen);
+        }
+        this.startFen = startFen;
+    }
+
+    /**
+     * @return the position the game started from, as FEN
+     */
+    public String getStartFen() {
+        return startFen;
+    }
+
+    /**
+     * @return how many moves (plies) have been recorded
+     */
+    public int size() {
+        return moves.size();
+    }
+
+    /**
+     * Records the next move. Moves are not checked here; record the ones
+     * ChessGame.makeMove accepted.
+     *
+     * @param move the move just made
+     */
+    public void add(ChessMove move) {
+        moves.add(PackedMove.encode(move));
+    }
+
+    /**
+     * Records the next move, given as a packed move
+     */
+    public void add(int packedMove) {
+        moves.add(PackedMove.withoutFlags(packedMove));
+    }
+
+    /**
+     * @param ply index of the move, 0 for the first move
+     * @return the recorded move
+     */
+    public ChessMove getMove(int ply) {
+        checkPly(ply, moves.size() - 1);
+        return PackedMove.toChessMove(moves.get(ply));
+    }
+
+    /**
+     * @return every recorded move in order
+     */
+    public List<ChessMove> getMoves() {
+        return moves.toChessMoves();
+    }
+
+    /**
+     * @return the game after every recorded move
+     */
+    public ChessGame replay() {
+        return replay(moves.size());
+    }
+
+    /**
+     * Rebuilds the game after the first ply moves. Moves are applied without
+     * legality checks, so this costs one applyMove per ply.
+     *
+     * @param ply how many moves to replay, from 0 to size()
+     * @return a new game in that position
+     */
+    public ChessGame replay(int ply) {
+        checkPly(ply, moves.size());
+        ChessGame game = ChessGame.fromFen(startFen);
+        for (int i = 0; i < ply; i++) {
+            int move = moves.get(i);
+            if (game.getBoard().getPiece(PackedMove.from(move)) == null) {
+                throw new IllegalStateException("Recorded move " + (i + 1) + " starts on an empty square");
+            }
+            game.applyMove(move, new ChessGame.MoveUndo());
+        }
+        return game;
+    }
+
+    /**
+     * @return the bytes write needs for the whole record
+     */
+    public int encodedSize() {
+        return 1 + startFen.length() + 2 * moves.size();
+    }
+
+    /**
+     * Writes the whole record: header, then every move
+     */
+    public void write(ByteBuffer out) {
+        writeHeader(out);
+        writeMoves(out, 0);
+    }
+
+    /**
+     * Writes the length byte and starting FEN
+     */
+    public void writeHeader(ByteBuffer out) {
+        out.put((byte) startFen.length());
+        out.put(startFen.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Writes the moves from fromPly on, two bytes each, for appending to a
+     * record that already holds the earlier ones
+     *
+     * @param out     the buffer to write to
+     * @param fromPly the first move to write
+     */
+    public void writeMoves(ByteBuffer out, int fromPly) {
+        checkPly(fromPly, moves.size());
+        for (int i = fromPly; i < moves.size(); i++) {
+            int move = moves.get(i);
+            out.put((byte) (move >>> 8));
+            out.put((byte) move);
+        }
+    }
+
+    /**
+     * Reads a record from the buffer's position up to its limit
+     *
+     * @param in the buffer holding a header and any number of moves
+     * @return the record
+     * @throws IllegalArgumentException if the bytes are not a record
+     */
+    public static GameRecord read(ByteBuffer in) {
+        GameRecord record;
+        try {
+            byte[] fen = new byte[in.get() & 0xFF];
+            in.get(fen);
+            record = new GameRecord(new String(fen, StandardCharsets.US_ASCII));
+        }
+        catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Game record header is cut short", e);
+        }
+        if (in.remaining() % 2 != 0) {
+            throw new IllegalArgumentException("Game record ends partway through a move");
+        }
+        while (in.hasRemaining()) {
+            int move = ((in.get() & 0xFF) << 8) | (in.get() & 0xFF);
+            if (!isRecordable(move)) {
+                throw new IllegalArgumentException("Bad move in game record: " + move);
+            }
+            record.moves.add(move);
+        }
+        return record;
+    }
+
+    //replay trusts the moves, so only let through ones makeMove could have made
+    private static boolean isRecordable(int move) {
+        //promotion bits past the last PieceType, or the top bit set
+        if ((move >>> 12) > ChessPiece.PieceType.values().length || PackedMove.from(move) == PackedMove.to(move)) {
+            return false;
+        }
+        ChessPiece.PieceType promotion = PackedMove.promotion(move);
+        return promotion != ChessPiece.PieceType.KING && promotion != ChessPiece.PieceType.PAWN;
+    }
+
+    private static void checkPly(int ply, int max) {
+        if (ply < 0 || ply > max) {
+            throw new IndexOutOfBoundsException("Ply " + ply + " is outside 0 to " + max);
+        }
+    }
+}
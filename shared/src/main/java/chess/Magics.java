@@ -0,0 +1,169 @@
+package chess;
+
+/**
+ * Magic bitboard lookup tables for rook and bishop attacks (queens use
+ * both). For each square the blockers on the relevant rays are multiplied
+ * by a magic number and shifted, giving an index into a table of
+ * precomputed attack masks, so a slider's reachable squares are one
+ * multiply and one array read.
+ * <p>
+ * The magic numbers were found with a seeded random search (sparse random
+ * candidates, rejected on any destructive collision) and are stored here so
+ * class load only has to fill the tables.
+ */
+final class Magics {
+    private static final int[] STRAIGHT_ROWS = {1, 0, -1, 0};
+    private static final int[] STRAIGHT_COLS = {0, 1, 0, -1};
+    private static final int[] DIAGONAL_ROWS = {1, -1, -1, 1};
+    private static final int[] DIAGONAL_COLS = {1, -1, 1, -1};
+
+    private static final long[] ROOK_MAGICS = {
+            0x1080004008801020L, 0x0840092002C03000L, 0x1900200010400900L, 0x0880100008000480L,
+            0x4200100420080200L, 0x8100020100080400L, 0x0200040110886200L, 0x0200008040220411L,
+            0x0404800084400220L, 0x0000401000402000L, 0x0086001081220440L, 0x0408800800100280L,
+            0x000A001201040820L, 0x8848800200840080L, 0x4001000100040200L, 0x0442000102105084L,
+            0x9080010020804100L, 0x0040404000201009L, 0x0000808010002009L, 0x2200090021D00100L,
+            0x0008008008040080L, 0x0004004002010040L, 0x0011040008015042L, 0x00000A0001768104L,
+            0x0000800080204009L, 0x2010004140002001L, 0x9800200280100080L, 0x1000100080080080L,
+            0x0442000A00049020L, 0x2100040080020080L, 0x0800120400900148L, 0x0010040A00128541L,
+            0x2800804000800030L, 0x1010002000400041L, 0x4000200011004100L, 0x0610008410800800L,
+            0x0400802402800800L, 0xC100020080800400L, 0x0002000802000401L, 0x0182085882000401L,
+            0x0220204000808000L, 0x2860100040024022L, 0x0001002004110040L, 0x99101042000A0020L,
+            0x0004080004008080L, 0x0010040002008080L, 0x2012004881020004L, 0x8300842444820011L,
+            0x0088403882010200L, 0x0820400080210100L, 0x0110910040A00300L, 0x0801100280080480L,
+            0x0242009008200600L, 0x1002000489500200L, 0x0040800200010080L, 0x0091800041000080L,
+            0x0000209300488001L, 0x04C1002414824001L, 0x020020000B001041L, 0x7000100004200901L,
+            0x8002002004100802L, 0x30010002084C0007L, 0x0888221800813004L, 0x4000002840840112L
+    };
+    private static final long[] BISHOP_MAGICS = {
+            0x10102002004A1420L, 0x8020040400584008L, 0x10510800811201C8L, 0x5204042080000088L,
+            0x2204106880000002L, 0x1401042004000000L, 0x0400880410042004L, 0x0028208200A02020L,
+            0x1500241990010E00L, 0x8001200182020A40L, 0x40004101030B0000L, 0x8002041042000100L,
+            0x4010011041020038L, 0x0000010421044000L, 0x1500210808020A00L, 0x8000088400880520L,
+            0x0405004010040100L, 0x1005823210040108L, 0x2708008102040011L, 0x4048200404009100L,
+            0x0018104101400024L, 0x0003000601190101L, 0x8004803108491000L, 0x8014241200820800L,
+            0x0006E080100C3040L, 0x0501044A11041800L, 0x9020300008004045L, 0x0894080000220040L,
+            0x1001010083104000L, 0x5004030040900080L, 0x000400422C012400L, 0x0002128698404812L,
+            0x1010108404900440L, 0x0928021182084100L, 0x2006080409020024L, 0x1010202020180080L,
+            0xA010008200202200L, 0x2098015100019004L, 0x0002041440810811L, 0x802A02020000B098L,
+            0x0009015090004060L, 0x4000821082081001L, 0x0100210040420800L, 0x0800004010488A00L,
+            0x2000081104004040L, 0x4C8E029015000082L, 0x0420340322224842L, 0x1298260043400210L,
+            0x0000822802400008L, 0x00008A0101600000L, 0x3040003412080021L, 0x3040290220884800L,
+            0x4A1500401041004AL, 0x8010200282020781L, 0x0020203142209091L, 0x0070300600902110L,
+            0x0040808800B62048L, 0x0000810400C44420L, 0x00080400440C0441L, 0x8340080020840411L,
+            0x0000000104208200L, 0x0000800810D00080L, 0x0400530411080200L, 0x4040702400932244L
+    };
+
+    private static final Table ROOK = new Table(STRAIGHT_ROWS, STRAIGHT_COLS, ROOK_MAGICS);
+    private static final Table BISHOP = new Table(DIAGONAL_ROWS, DIAGONAL_COLS, BISHOP_MAGICS);
+
+    private Magics() {
+    }
+
+    /**
+     * @return mask of the squares a rook on square reaches, including the
+     * first blocker on each ray whatever its color
+     */
+    static long rookAttacks(int square, long occupied) {
+        return ROOK.attacks(square, occupied);
+    }
+
+    /**
+     * @return mask of the squares a bishop on square reaches, including the
+     * first blocker on each ray whatever its color
+     */
+    static long bishopAttacks(int square, long occupied) {
+        return BISHOP.attacks(square, occupied);
+    }
+
+    /**
+     * @return mask of the squares a queen on square reaches
+     */
+    static long queenAttacks(int square, long occupied) {
+        return ROOK.attacks(square, occupied) | BISHOP.attacks(square, occupied);
+    }
+
+    //"fancy" magics: every square gets its own slice of one shared attack array
+    private static final class Table {
+        private final long[] masks = new long[64];
+        private final long[] magics;
+        private final int[] shifts = new int[64];
+        private final int[] offsets = new int[64];
+        private final long[] attacks;
+
+        private Table(int[] rowSteps, int[] colSteps, long[] magics) {
+            this.magics = magics;
+            int total = 0;
+            for (int square = 0; square < 64; square++) {
+                masks[square] = relevantMask(square, rowSteps, colSteps);
+                shifts[square] = 64 - Long.bitCount(masks[square]);
+                offsets[square] = total;
+                total += 1 << Long.bitCount(masks[square]);
+            }
+            attacks = new long[total];
+
+            for (int square = 0; square < 64; square++) {
+                long mask = masks[square];
+                long subset = 0;
+                //carry-rippler trick to step through every subset of the mask
+                do {
+                    int slot = offsets[square] + (int) ((subset * magics[square]) >>> shifts[square]);
+                    long reach = slidingAttacks(square, subset, rowSteps, colSteps);
+                    //a slider always reaches at least one square, so 0 means the slot is still free
+                    if (attacks[slot] != 0 && attacks[slot] != reach) {
+                        throw new IllegalStateException("Bad magic number for square " + square);
+                    }
+                    attacks[slot] = reach;
+                    subset = (subset - mask) & mask;
+                } while (subset != 0);
+            }
+        }
+
+        private long attacks(int square, long occupied) {
+            int index = (int) (((occupied & masks[square]) * magics[square]) >>> shifts[square]);
+            return attacks[offsets[square] + index];
+        }
+    }
+
+    //the ray squares whose occupancy matters, leaving out the board edge at the end of each ray
+    private static long relevantMask(int square, int[] rowSteps, int[] colSteps) {
+        long mask = 0;
+        int row = ChessBoard.rowOf(square);
+        int col = ChessBoard.columnOf(square);
+        for (int i = 0; i < rowSteps.length; i++) {
+            int r = row + rowSteps[i];
+            int c = col + colSteps[i];
+            while (isInBounds(r + rowSteps[i], c + colSteps[i])) {
+                mask |= 1L << ChessBoard.squareOf(r, c);
+                r += rowSteps[i];
+                c += colSteps[i];
+            }
+        }
+        return mask;
+    }
+
+    //the slow ray walk, only used to fill the tables
+    private static long slidingAttacks(int square, long occupied, int[] rowSteps, int[] colSteps) {
+        long result = 0;
+        int row = ChessBoard.rowOf(square);
+        int col = ChessBoard.columnOf(square);
+        for (int i = 0; i < rowSteps.length; i++) {
+            int r = row + rowSteps[i];
+            int c = col + colSteps[i];
+            while (isInBounds(r, c)) {
+                long bit = 1L << ChessBoard.squareOf(r, c);
+                result |= bit;
+                if ((occupied & bit) != 0) {
+                    break;
+                }
+                r += rowSteps[i];
+                c += colSteps[i];
+            }
+        }
+        return result;
+    }
+
+    private static boolean isInBounds(int row, int col) {
+        return row <= 8 && row >= 1 && col <= 8 && col >= 1;
+    }
+}
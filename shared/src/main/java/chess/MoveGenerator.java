@@ -0,0 +1,118 @@
+package chess;
+
+/**
+ * Generates pseudo-legal moves (moves that may still leave the king in
+ * check) as packed ints into a MoveList, so nothing is allocated per move.
+ */
+final class MoveGenerator {
+    private static final ChessPiece.PieceType[] PROMOTIONS = {
+            ChessPiece.PieceType.QUEEN,
+            ChessPiece.PieceType.BISHOP,
+            ChessPiece.PieceType.ROOK,
+            ChessPiece.PieceType.KNIGHT
+    };
+
+    private MoveGenerator() {
+    }
+
+    /**
+     * Adds the moves of every piece of a team to the list
+     *
+     * @param enPassant the square a pawn may capture en passant onto, or -1
+     */
+    static void generate(ChessBoard board, ChessGame.TeamColor team, int enPassant, MoveList moves) {
+        long pieces = board.getTeamSet(team);
+        while (pieces != 0) {
+            int square = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            generate(board, square, board.getPiece(square), enPassant, moves);
+        }
+    }
+
+    /**
+     * Adds the moves the given piece could make from a square to the list,
+     * with no en passant capture available
+     */
+    static void generate(ChessBoard board, int from, ChessPiece piece, MoveList moves) {
+        generate(board, from, piece, -1, moves);
+    }
+
+    /**
+     * Adds the moves the given piece could make from a square to the list
+     *
+     * @param enPassant the square a pawn may capture en passant onto, or -1
+     */
+    static void generate(ChessBoard board, int from, ChessPiece piece, int enPassant, MoveList moves) {
+        long own = board.getTeamSet(piece.getTeamColor());
+        long enemy = board.getTeamSet(ChessGame.otherTeam(piece.getTeamColor()));
+        long occupied = own | enemy;
+        switch (piece.getPieceType()) {
+            case KING -> addTargets(from, Attacks.KING_ATTACKS[from] & ~own, enemy, moves);
+            case KNIGHT -> addTargets(from, Attacks.KNIGHT_ATTACKS[from] & ~own, enemy, moves);
+            case BISHOP -> addTargets(from, Magics.bishopAttacks(from, occupied) & ~own, enemy, moves);
+            case ROOK -> addTargets(from, Magics.rookAttacks(from, occupied) & ~own, enemy, moves);
+            case QUEEN -> addTargets(from, Magics.queenAttacks(from, occupied) & ~own, enemy, moves);
+            case PAWN -> pawnMoves(from, piece.getTeamColor(), occupied, enemy, enPassant, moves);
+        }
+    }
+
+    //adds a move to every square in targets, flagging the ones that hold an enemy
+    private static void addTargets(int from, long targets, long enemy, MoveList moves) {
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            int flags = (enemy & (1L << to)) != 0 ? PackedMove.CAPTURE : 0;
+            moves.add(PackedMove.encode(from, to, null, flags));
+        }
+    }
+
+    private static void pawnMoves(int from, ChessGame.TeamColor color, long occupied, long enemy, int enPassant,
+                                  MoveList moves) {
+        boolean white = color == ChessGame.TeamColor.WHITE;
+        int direction = white ? 1 : -1;
+        int startRow = white ? 2 : 7;
+        int promotionRow = white ? 7 : 2;
+        int row = ChessBoard.rowOf(from);
+        int col = ChessBoard.columnOf(from);
+        int nextRow = row + direction;
+        if (nextRow < 1 || nextRow > 8) {
+            return;
+        }
+        boolean promotes = row == promotionRow;
+
+        int oneStep = ChessBoard.squareOf(nextRow, col);
+        if ((occupied & (1L << oneStep)) == 0) {
+            addPawnMove(from, oneStep, promotes, 0, moves);
+            if (row == startRow) {
+                int twoStep = ChessBoard.squareOf(nextRow + direction, col);
+                if ((occupied & (1L << twoStep)) == 0) {
+                    moves.add(PackedMove.encode(from, twoStep, null, PackedMove.DOUBLE_PUSH));
+                }
+            }
+        }
+        for (int side = -1; side <= 1; side += 2) {
+            int c = col + side;
+            if (c >= 1 && c <= 8) {
+                int target = ChessBoard.squareOf(nextRow, c);
+                if ((enemy & (1L << target)) != 0) {
+                    addPawnMove(from, target, promotes, PackedMove.CAPTURE, moves);
+                }
+            }
+        }
+        //the target square is empty, the pawn taken sits beside this one
+        if (enPassant >= 0 && (Attacks.PAWN_ATTACKS[color.ordinal()][from] & (1L << enPassant)) != 0) {
+            moves.add(PackedMove.encode(from, enPassant, null, PackedMove.CAPTURE | PackedMove.EN_PASSANT));
+        }
+    }
+
+    private static void addPawnMove(int from, int to, boolean promotes, int flags, MoveList moves) {
+        if (promotes) {
+            for (ChessPiece.PieceType promotion : PROMOTIONS) {
+                moves.add(PackedMove.encode(from, to, promotion, flags));
+            }
+        }
+        else {
+            moves.add(PackedMove.encode(from, to, null, flags));
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A reusable buffer of packed moves (see PackedMove). Clearing it keeps the
+ * backing array, so one list can be filled again and again without creating
+ * garbage.
+ */
+public final class MoveList {
+    private int[] moves;
+    private int size;
+
+    public MoveList() {
+        //more than the most legal moves any real position has
+        this(256);
+    }
+
+    public MoveList(int capacity) {
+        moves = new int[capacity];
+    }
+
+    /**
+     * Appends a packed move, growing the buffer only if it is full
+     */
+    public void add(int move) {
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, moves.length * 2);
+        }
+        moves[size++] = move;
+    }
+
+    /**
+     * @return the packed move at index
+     */
+    public int get(int index) {
+        return moves[index];
+    }
+
+    /**
+     * Replaces the packed move at index
+     */
+    public void set(int index, int move) {
+        moves[index] = move;
+    }
+
+    /**
+     * @return how many moves are in the list
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return True if the list holds no moves
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Drops every move after the first newSize
+     */
+    public void truncate(int newSize) {
+        size = newSize;
+    }
+
+    /**
+     * Empties the list but keeps its buffer
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * @return True if the list holds a move with the same squares and
+     * promotion, ignoring flags
+     */
+    public boolean contains(int move) {
+        for (int i = 0; i < size; i++) {
+            if (PackedMove.sameMove(moves[i], move)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the moves unpacked into ChessMove objects
+     */
+    public List<ChessMove> toChessMoves() {
+        List<ChessMove> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(PackedMove.toChessMove(moves[i]));
+        }
+        return list;
+    }
+}
@@ -0,0 +1,115 @@
+package chess;
+
+/**
+ * Encodes a chess move in a single int so move generation does not have to
+ * allocate ChessMove and ChessPosition objects.
+ * <p>
+ * Bits 0-5 hold the start square, bits 6-11 the end square (square =
+ * (row-1)*8 + (col-1)), bits 12-14 the promotion piece (0 for none, otherwise
+ * PieceType ordinal + 1) and the bits above that hold flags.
+ */
+public final class PackedMove {
+    /**
+     * Set when the move takes an enemy piece
+     */
+    public static final int CAPTURE = 1 << 15;
+    /**
+     * Set when a pawn moves two squares from its starting row
+     */
+    public static final int DOUBLE_PUSH = 1 << 16;
+    /**
+     * Set when the king castles; the end square is the king's, two columns over
+     */
+    public static final int CASTLE = 1 << 17;
+    /**
+     * Set when a pawn captures en passant; CAPTURE is set as well
+     */
+    public static final int EN_PASSANT = 1 << 18;
+
+    //the bits that say which move it is, without the flags
+    private static final int MOVE_MASK = (1 << 15) - 1;
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    private PackedMove() {
+    }
+
+    /**
+     * @param from      start square index
+     * @param to        end square index
+     * @param promotion type to promote to, or null if no promotion
+     * @param flags     any of the flag constants, or 0
+     * @return the packed move
+     */
+    public static int encode(int from, int to, ChessPiece.PieceType promotion, int flags) {
+        int promotionBits = promotion == null ? 0 : promotion.ordinal() + 1;
+        return from | (to << 6) | (promotionBits << 12) | flags;
+    }
+
+    /**
+     * Packs a ChessMove. Both positions have to be on the board. The result
+     * carries no flags.
+     *
+     * @param move the move to pack
+     * @return the packed move
+     * @throws ArrayIndexOutOfBoundsException if either position is off the board
+     */
+    public static int encode(ChessMove move) {
+        return encode(ChessBoard.checkedSquareOf(move.getStartPosition()),
+                ChessBoard.checkedSquareOf(move.getEndPosition()),
+                move.getPromotionPiece(), 0);
+    }
+
+    /**
+     * @return the start square index of a packed move
+     */
+    public static int from(int move) {
+        return move & 63;
+    }
+
+    /**
+     * @return the end square index of a packed move
+     */
+    public static int to(int move) {
+        return (move >>> 6) & 63;
+    }
+
+    /**
+     * @return the promotion type of a packed move, or null if no promotion
+     */
+    public static ChessPiece.PieceType promotion(int move) {
+        int promotionBits = (move >>> 12) & 7;
+        return promotionBits == 0 ? null : TYPES[promotionBits - 1];
+    }
+
+    /**
+     * @return True if the packed move has every bit of the given flag set
+     */
+    public static boolean hasFlag(int move, int flag) {
+        return (move & flag) == flag;
+    }
+
+    /**
+     * @return True if both packed moves have the same squares and promotion,
+     * ignoring flags
+     */
+    public static boolean sameMove(int a, int b) {
+        return ((a ^ b) & MOVE_MASK) == 0;
+    }
+
+    /**
+     * @return the move with its flags cleared, which fits in 15 bits
+     */
+    public static int withoutFlags(int move) {
+        return move & MOVE_MASK;
+    }
+
+    /**
+     * Unpacks a move into the public API type
+     *
+     * @param move the packed move
+     * @return an equal ChessMove
+     */
+    public static ChessMove toChessMove(int move) {
+        return new ChessMove(ChessPosition.of(from(move)), ChessPosition.of(to(move)), promotion(move));
+    }
+}
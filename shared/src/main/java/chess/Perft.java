@@ -0,0 +1,164 @@
+package chess;
+
+import java.util.List;
+
+/**
+ * Counts the leaf nodes of the legal move tree (perft) to check the move
+ * generator against published numbers and to measure its speed.
+ * <p>
+ * Run from the shared module with
+ * <pre>mvn compile exec:java</pre> to check every reference position, add
+ * <pre>-Dexec.args="4"</pre> to cap the depth, or
+ * <pre>-Dexec.args="divide 'fen' depth"</pre> to print the count
+ * under each first move.
+ */
+public class Perft {
+
+    /**
+     * A reference position and its known node counts, expected[i] being the
+     * count at depth i + 1
+     */
+    public record Position(String name, String fen, long[] expected) {
+    }
+
+    /**
+     * Positions whose counts are published on the chessprogramming wiki,
+     * to depths that keep the whole set to a few seconds.
+     */
+    public static final List<Position> POSITIONS = List.of(
+            new Position("start", "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+                    new long[]{20, 400, 8902, 197281, 4865609}),
+            new Position("position 3", "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+                    new long[]{14, 191, 2812, 43238, 674624}),
+            new Position("kiwipete", "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                    new long[]{48, 2039, 97862, 4085603}),
+            new Position("position 4", "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+                    new long[]{6, 264, 9467, 422333}),
+            new Position("position 5", "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+                    new long[]{44, 1486, 62379, 2103487}),
+            new Position("position 6", "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+                    new long[]{46, 2079, 89890, 3894594})
+    );
+
+    private final ChessGame game;
+    private MoveList[] moveLists = new MoveList[0];
+    private ChessGame.MoveUndo[] undos = new ChessGame.MoveUndo[0];
+
+    public Perft(ChessGame game) {
+        this.game = game;
+    }
+
+    /**
+     * @param depth how many plies to search
+     * @return the number of legal move sequences of exactly that length
+     */
+    public long count(int depth) {
+        ensureCapacity(depth);
+        return count(depth, 0);
+    }
+
+    /**
+     * Prints the node count below each legal first move
+     *
+     * @param depth how many plies to search, at least 1
+     * @return the total node count
+     */
+    public long divide(int depth) {
+        ensureCapacity(depth);
+        MoveList moves = moveLists[0];
+        game.legalMoves(moves);
+        long total = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            game.applyMove(move, undos[0]);
+            long nodes = count(depth - 1, 1);
+            game.undoMove(undos[0]);
+            System.out.println(squareName(PackedMove.from(move)) + squareName(PackedMove.to(move))
+                    + promotionName(move) + ": " + nodes);
+            total += nodes;
+        }
+        System.out.println("total: " + total);
+        return total;
+    }
+
+    private long count(int depth, int ply) {
+        if (depth == 0) {
+            return 1;
+        }
+        MoveList moves = moveLists[ply];
+        game.legalMoves(moves);
+        //the legal move count is the answer one ply from the leaves
+        if (depth == 1) {
+            return moves.size();
+        }
+        long nodes = 0;
+        ChessGame.MoveUndo undo = undos[ply];
+        for (int i = 0; i < moves.size(); i++) {
+            game.applyMove(moves.get(i), undo);
+            nodes += count(depth - 1, ply + 1);
+            game.undoMove(undo);
+        }
+        return nodes;
+    }
+
+    private void ensureCapacity(int depth) {
+        if (moveLists.length >= depth) {
+            return;
+        }
+        moveLists = new MoveList[depth];
+        undos = new ChessGame.MoveUndo[depth];
+        for (int i = 0; i < depth; i++) {
+            moveLists[i] = new MoveList();
+            undos[i] = new ChessGame.MoveUndo();
+        }
+    }
+
+    private static String squareName(int square) {
+        return "" + (char) ('a' + ChessBoard.columnOf(square) - 1) + ChessBoard.rowOf(square);
+    }
+
+    private static String promotionName(int move) {
+        ChessPiece.PieceType promotion = PackedMove.promotion(move);
+        if (promotion == null) {
+            return "";
+        }
+        return promotion == ChessPiece.PieceType.KNIGHT ? "n" : promotion.name().substring(0, 1).toLowerCase();
+    }
+
+    /**
+     * Runs every reference position and reports node counts and speed.
+     * Exits with status 1 if any count is wrong.
+     */
+    public static void main(String[] args) {
+        if (args.length == 3 && args[0].equals("divide")) {
+            new Perft(ChessGame.fromFen(args[1])).divide(Integer.parseInt(args[2]));
+            return;
+        }
+        int maxDepth = args.length > 0 ? Integer.parseInt(args[0]) : Integer.MAX_VALUE;
+
+        boolean allCorrect = true;
+        long totalNodes = 0;
+        long totalNanos = 0;
+        for (Position position : POSITIONS) {
+            Perft perft = new Perft(ChessGame.fromFen(position.fen()));
+            for (int depth = 1; depth <= Math.min(maxDepth, position.expected().length); depth++) {
+                long start = System.nanoTime();
+                long nodes = perft.count(depth);
+                long nanos = System.nanoTime() - start;
+                long expected = position.expected()[depth - 1];
+                boolean correct = nodes == expected;
+                allCorrect &= correct;
+                totalNodes += nodes;
+                totalNanos += nanos;
+                System.out.printf("%-12s depth %d: %,12d nodes %8.1f ms %,12.0f nodes/s %s%n",
+                        position.name(), depth, nodes, nanos / 1e6, nodes * 1e9 / Math.max(nanos, 1),
+                        correct ? "ok" : "WRONG, expected " + expected);
+            }
+        }
+        System.out.printf("total %,d nodes in %.1f ms, %,.0f nodes/s%n",
+                totalNodes, totalNanos / 1e6, totalNodes * 1e9 / Math.max(totalNanos, 1));
+        if (!allCorrect) {
+            System.exit(1);
+        }
+    }
+}
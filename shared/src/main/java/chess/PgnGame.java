@@ -0,0 +1,15 @@
+package chess;
+
+import java.util.Map;
+
+/**
+ * One game read from a PGN file
+ *
+ * @param tags   the tag pairs in file order, such as Event, White and Result
+ * @param record the starting position and every move, already checked by
+ *               the rules engine
+ * @param result the game termination marker: "1-0", "0-1", "1/2-1/2" or "*"
+ * @param game   the game after its last move
+ */
+public record PgnGame(Map<String, String> tags, GameRecord record, String result, ChessGame game) {
+}
@@ -0,0 +1,127 @@
+package chess;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+/**
+ * Bulk imports PGN files through PgnReader, one game in memory at a time,
+ * and reports how fast it went.
+ * <p>
+ * Run from the shared module with
+ * <pre>mvn compile exec:java -Dexec.mainClass=chess.PgnLoader -Dexec.args="games.pgn"</pre>
+ * and add a second file name to the arguments to also write the final
+ * position of every game as FEN, one per line, for building test sets.
+ */
+public class PgnLoader {
+
+    /**
+     * Totals of one load
+     *
+     * @param games  games read and checked
+     * @param plies  moves played across those games
+     * @param errors games skipped because they were malformed or illegal
+     * @param nanos  time taken
+     */
+    public record Stats(long games, long plies, long errors, long nanos) {
+        public double gamesPerSecond() {
+            return games * 1e9 / Math.max(nanos, 1);
+        }
+
+        public double pliesPerSecond() {
+            return plies * 1e9 / Math.max(nanos, 1);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%,d games, %,d plies, %,d errors in %.1f s: %,.0f games/s, %,.0f plies/s",
+                    games, plies, errors, nanos / 1e9, gamesPerSecond(), pliesPerSecond());
+        }
+    }
+
+    private PgnLoader() {
+    }
+
+    /**
+     * Reads every game and hands each good one to the consumer. Bad games
+     * are counted and passed to onError, then skipped.
+     *
+     * @param in      the PGN text
+     * @param games   receives each game that was read successfully
+     * @param onError receives the problem with each game that was skipped
+     * @return the totals
+     * @throws IOException if reading fails
+     */
+    public static Stats load(Reader in, Consumer<PgnGame> games, Consumer<IllegalArgumentException> onError)
+            throws IOException {
+        PgnReader reader = new PgnReader(in);
+        long start = System.nanoTime();
+        long count = 0;
+        long plies = 0;
+        long errors = 0;
+        while (true) {
+            PgnGame game;
+            try {
+                game = reader.next();
+            }
+            catch (IllegalArgumentException e) {
+                errors++;
+                onError.accept(e);
+                continue;
+            }
+            if (game == null) {
+                break;
+            }
+            count++;
+            plies += game.record().size();
+            games.accept(game);
+        }
+        return new Stats(count, plies, errors, System.nanoTime() - start);
+    }
+
+    /**
+     * Loads a PGN file and prints the totals, with a progress line every
+     * 100,000 games
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("usage: PgnLoader games.pgn [positions.fen]");
+            System.exit(2);
+        }
+        Writer fens = args.length == 2
+                ? Files.newBufferedWriter(Path.of(args[1]), StandardCharsets.UTF_8) : null;
+        long start = System.nanoTime();
+        long[] seen = new long[1];
+        try (Reader in = Files.newBufferedReader(Path.of(args[0]), StandardCharsets.UTF_8)) {
+            Stats stats = load(in, game -> {
+                if (fens != null) {
+                    writeLine(fens, game.game().toFen());
+                }
+                if (++seen[0] % 100_000 == 0) {
+                    System.err.printf("%,d games, %,.0f games/s%n", seen[0], seen[0] * 1e9 / (System.nanoTime() - start));
+                }
+            }, e -> System.err.println(e.getMessage()));
+            System.out.println(stats);
+        }
+        finally {
+            if (fens != null) {
+                fens.close();
+            }
+        }
+    }
+
+    private static void writeLine(Writer out, String line) {
+        try {
+            out.write(line);
+            out.write('\n');
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
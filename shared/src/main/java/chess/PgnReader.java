@@ -0,0 +1,271 @@
+package chess;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reads games one at a time from PGN text, so files of any size can be
+ * imported while only the current game is held in memory.
+ * <p>
+ * Each SAN move is parsed with ChessGame.parseSan and played with makeMove,
+ * so only games the rules engine accepts come back. Comments, variations,
+ * NAGs and escape lines are skipped. A game with a bad move is read to its
+ * end before the exception is thrown, so the next call continues with the
+ * following game.
+ */
+public class PgnReader implements Closeable {
+    //token kinds
+    private static final int END = -1;
+    private static final int SYMBOL = 0;
+    private static final int STRING = 1;
+    private static final int OPEN_TAG = 2;
+    private static final int CLOSE_TAG = 3;
+    private static final int OTHER = 4;
+
+    private final Reader in;
+    private final char[] buffer = new char[8192];
+    private int position;
+    private int limit;
+    private boolean lineStart = true;
+    private int line = 1;
+    //a token read one too far, handed out again by the next call
+    private int pushedBack = -2;
+    private final StringBuilder token = new StringBuilder();
+    private int gamesRead;
+
+    public PgnReader(Reader in) {
+        this.in = in;
+    }
+
+    /**
+     * Reads the next game
+     *
+     * @return the game, or null at the end of the input
+     * @throws IOException              if reading fails
+     * @throws IllegalArgumentException if the game is malformed or has an
+     *                                  illegal move; the reader moves on to the next game
+     */
+    public PgnGame next() throws IOException {
+        int kind = nextToken();
+        if (kind == END) {
+            return null;
+        }
+        gamesRead++;
+        String error = null;
+
+        Map<String, String> tags = new LinkedHashMap<>();
+        while (kind == OPEN_TAG) {
+            int nameKind = nextToken();
+            String name = token.toString();
+            int valueKind = nextToken();
+            String value = token.toString();
+            if (nameKind != SYMBOL || valueKind != STRING || nextToken() != CLOSE_TAG) {
+                error = "bad tag pair near line " + line;
+            }
+            else {
+                tags.put(name, value);
+            }
+            kind = nextToken();
+        }
+
+        String fen = tags.get("FEN");
+        GameRecord record = null;
+        ChessGame game = null;
+        if (error == null) {
+            try {
+                record = fen == null ? new GameRecord() : new GameRecord(fen);
+                game = ChessGame.fromFen(record.getStartFen());
+            }
+            catch (IllegalArgumentException e) {
+                error = e.getMessage();
+            }
+        }
+
+        String result = "*";
+        int depth = 0;
+        for (; kind != END; kind = nextToken()) {
+            if (kind == OPEN_TAG && depth == 0) {
+                //the next game started without a result
+                pushedBack = OPEN_TAG;
+                break;
+            }
+            if (kind == OTHER) {
+                char c = token.charAt(0);
+                if (c == '(') {
+                    depth++;
+                }
+                else if (c == ')') {
+                    depth = Math.max(0, depth - 1);
+                }
+                else if (c == '*' && depth == 0) {
+                    break;
+                }
+                continue;
+            }
+            if (kind != SYMBOL || depth > 0) {
+                continue;
+            }
+            if (isResult(token)) {
+                result = token.toString();
+                break;
+            }
+            if (error != null || isMoveNumber(token)) {
+                continue;
+            }
+            String san = token.toString();
+            try {
+                ChessMove move = game.parseSan(san);
+                game.makeMove(move);
+                record.add(move);
+            }
+            catch (InvalidMoveException e) {
+                //numbered as in the movetext, so games starting from a [FEN] with black to move come out right
+                String number = game.getFullmoveNumber()
+                        + (game.getTeamTurn() == ChessGame.TeamColor.BLACK ? "..." : ".");
+                error = "move " + number + " '" + san + "': " + e.getMessage();
+            }
+        }
+        if (error != null) {
+            throw new IllegalArgumentException("Game " + gamesRead + ": " + error);
+        }
+        return new PgnGame(tags, record, result, game);
+    }
+
+    /**
+     * @return how many games next has started reading, bad ones included
+     */
+    public int getGamesRead() {
+        return gamesRead;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private static boolean isResult(CharSequence s) {
+        return "1-0".contentEquals(s) || "0-1".contentEquals(s) || "1/2-1/2".contentEquals(s);
+    }
+
+    private static boolean isMoveNumber(CharSequence s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (!Character.isDigit(s.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    //reads the next token into token and returns its kind, skipping whitespace and comments
+    private int nextToken() throws IOException {
+        if (pushedBack != -2) {
+            int kind = pushedBack;
+            pushedBack = -2;
+            return kind;
+        }
+        token.setLength(0);
+        while (true) {
+            boolean atLineStart = lineStart;
+            int c = read();
+            if (c == -1) {
+                return END;
+            }
+            if (c == '%' && atLineStart) {
+                skipLine();
+            }
+            else if (c == ';') {
+                skipLine();
+            }
+            else if (c == '{') {
+                while (c != '}' && c != -1) {
+                    c = read();
+                }
+            }
+            else if (c == '"') {
+                return readString();
+            }
+            else if (c == '[') {
+                return OPEN_TAG;
+            }
+            else if (c == ']') {
+                return CLOSE_TAG;
+            }
+            else if (isSymbolChar(c)) {
+                token.append((char) c);
+                while (isSymbolChar(peek())) {
+                    token.append((char) read());
+                }
+                return SYMBOL;
+            }
+            else if (c == '$') {
+                //numeric annotation glyph
+                while (Character.isDigit(peek())) {
+                    read();
+                }
+            }
+            else if (!Character.isWhitespace(c)) {
+                token.append((char) c);
+                return OTHER;
+            }
+        }
+    }
+
+    private int readString() throws IOException {
+        int c = read();
+        while (c != '"' && c != -1) {
+            if (c == '\\') {
+                c = read();
+                if (c == -1) {
+                    break;
+                }
+            }
+            token.append((char) c);
+            c = read();
+        }
+        return STRING;
+    }
+
+    private void skipLine() throws IOException {
+        int c = read();
+        while (c != '\n' && c != -1) {
+            c = read();
+        }
+    }
+
+    private static boolean isSymbolChar(int c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                || c == '_' || c == '+' || c == '#' || c == '=' || c == ':' || c == '-' || c == '/';
+    }
+
+    private int peek() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position];
+    }
+
+    private int read() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        char c = buffer[position++];
+        lineStart = c == '\n';
+        if (lineStart) {
+            line++;
+        }
+        return c;
+    }
+
+    private boolean fill() throws IOException {
+        limit = in.read(buffer, 0, buffer.length);
+        position = 0;
+        if (limit <= 0) {
+            limit = 0;
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,189 @@
+package chess;
+
+/**
+ * Standard algebraic notation (SAN) as used in PGN, such as "e4", "Nbd7",
+ * "exd8=Q+" or "O-O". Moves are looked up in, and disambiguated against, a
+ * list of legal moves, so the rules engine decides what is valid and
+ * nothing is generated here.
+ */
+final class San {
+    //piece letters by PieceType ordinal, pawns have none
+    private static final String PIECE_LETTERS = "KQBNR";
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    private San() {
+    }
+
+    /**
+     * @param board the position the move is made in
+     * @param team  the side to move
+     * @param legal every legal move of that side
+     * @param san   the move in SAN; check, mate and annotation marks are ignored
+     * @return the matching packed move from the legal list
+     * @throws InvalidMoveException if no legal move matches, or more than one does
+     */
+    static int parse(ChessBoard board, ChessGame.TeamColor team, MoveList legal, String san)
+            throws InvalidMoveException {
+        int end = san.length();
+        while (end > 0 && "+#!?".indexOf(san.charAt(end - 1)) >= 0) {
+            end--;
+        }
+        if (isCastle(san, end, 5)) {
+            return castle(board, team, legal, san, -2);
+        }
+        if (isCastle(san, end, 3)) {
+            return castle(board, team, legal, san, 2);
+        }
+
+        int start = 0;
+        ChessPiece.PieceType type = ChessPiece.PieceType.PAWN;
+        int letter = end > 0 ? PIECE_LETTERS.indexOf(san.charAt(0)) : -1;
+        if (letter >= 0) {
+            type = TYPES[letter];
+            start = 1;
+        }
+        ChessPiece.PieceType promotion = null;
+        if (type == ChessPiece.PieceType.PAWN && end > 2) {
+            //"e8=Q", also accept the older "e8Q"
+            int promotionLetter = PIECE_LETTERS.indexOf(san.charAt(end - 1));
+            if (promotionLetter > 0) {
+                promotion = TYPES[promotionLetter];
+                end--;
+                if (san.charAt(end - 1) == '=') {
+                    end--;
+                }
+            }
+        }
+        if (end - start < 2) {
+            throw new InvalidMoveException("Not a SAN move: " + san);
+        }
+        int toCol = san.charAt(end - 2) - 'a' + 1;
+        int toRow = san.charAt(end - 1) - '0';
+        if (toCol < 1 || toCol > 8 || toRow < 1 || toRow > 8) {
+            throw new InvalidMoveException("Not a SAN move: " + san);
+        }
+        int to = ChessBoard.squareOf(toRow, toCol);
+
+        //whatever sits between the piece letter and the target square: a file, a rank, x for captures
+        int fromCol = 0;
+        int fromRow = 0;
+        for (int i = start; i < end - 2; i++) {
+            char c = san.charAt(i);
+            if (c >= 'a' && c <= 'h') {
+                fromCol = c - 'a' + 1;
+            }
+            else if (c >= '1' && c <= '8') {
+                fromRow = c - '0';
+            }
+            else if (c != 'x' && c != '-' && c != ':') {
+                throw new InvalidMoveException("Not a SAN move: " + san);
+            }
+        }
+
+        int found = -1;
+        for (int i = 0; i < legal.size(); i++) {
+            int move = legal.get(i);
+            int from = PackedMove.from(move);
+            if (PackedMove.to(move) != to || PackedMove.promotion(move) != promotion
+                    || board.getPiece(from).getPieceType() != type
+                    || (fromCol != 0 && ChessBoard.columnOf(from) != fromCol)
+                    || (fromRow != 0 && ChessBoard.rowOf(from) != fromRow)) {
+                continue;
+            }
+            if (found >= 0) {
+                throw new InvalidMoveException("Ambiguous move: " + san);
+            }
+            found = move;
+        }
+        if (found < 0) {
+            throw new InvalidMoveException("No legal move matches " + san);
+        }
+        return found;
+    }
+
+    /**
+     * Writes a legal move in SAN without the check or mate mark, naming the
+     * start file, rank or both only when another legal move of the same
+     * piece type reaches the same square
+     *
+     * @param board the position the move is made in
+     * @param legal every legal move of the side to move, including move
+     * @param move  the packed move to write
+     * @param out   where to append the text
+     */
+    static void format(ChessBoard board, MoveList legal, int move, StringBuilder out) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        ChessPiece.PieceType type = board.getPiece(from).getPieceType();
+        if (type == ChessPiece.PieceType.KING && Math.abs(to - from) == 2) {
+            out.append(to > from ? "O-O" : "O-O-O");
+            return;
+        }
+        //a pawn moving diagonally always captures, en passant included
+        boolean capture = board.getPiece(to) != null
+                || (type == ChessPiece.PieceType.PAWN && ChessBoard.columnOf(from) != ChessBoard.columnOf(to));
+
+        if (type == ChessPiece.PieceType.PAWN) {
+            if (capture) {
+                out.append((char) ('a' + ChessBoard.columnOf(from) - 1));
+            }
+        }
+        else {
+            out.append(PIECE_LETTERS.charAt(type.ordinal()));
+            boolean ambiguous = false;
+            boolean sameFile = false;
+            boolean sameRow = false;
+            for (int i = 0; i < legal.size(); i++) {
+                int other = PackedMove.from(legal.get(i));
+                if (other == from || PackedMove.to(legal.get(i)) != to
+                        || board.getPiece(other).getPieceType() != type) {
+                    continue;
+                }
+                ambiguous = true;
+                sameFile |= ChessBoard.columnOf(other) == ChessBoard.columnOf(from);
+                sameRow |= ChessBoard.rowOf(other) == ChessBoard.rowOf(from);
+            }
+            //the file is enough unless another piece shares it, then the rank, then both
+            if (ambiguous && (!sameFile || sameRow)) {
+                out.append((char) ('a' + ChessBoard.columnOf(from) - 1));
+            }
+            if (ambiguous && sameFile) {
+                out.append((char) ('0' + ChessBoard.rowOf(from)));
+            }
+        }
+        if (capture) {
+            out.append('x');
+        }
+        out.append((char) ('a' + ChessBoard.columnOf(to) - 1)).append((char) ('0' + ChessBoard.rowOf(to)));
+        ChessPiece.PieceType promotion = PackedMove.promotion(move);
+        if (promotion != null) {
+            out.append('=').append(PIECE_LETTERS.charAt(promotion.ordinal()));
+        }
+    }
+
+    //"O-O" or "O-O-O", also written with zeros
+    private static boolean isCastle(String san, int end, int length) {
+        if (end != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = san.charAt(i);
+            if (i % 2 == 0 ? c != 'O' && c != '0' : c != '-') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int castle(ChessBoard board, ChessGame.TeamColor team, MoveList legal, String san, int direction)
+            throws InvalidMoveException {
+        int king = board.kingSquare(team);
+        for (int i = 0; i < legal.size(); i++) {
+            int move = legal.get(i);
+            if (PackedMove.from(move) == king && PackedMove.to(move) == king + direction) {
+                return move;
+            }
+        }
+        throw new InvalidMoveException("Cannot castle: " + san);
+    }
+}
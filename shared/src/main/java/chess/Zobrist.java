@@ -0,0 +1,61 @@
+package chess;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random 64 bit keys for Zobrist hashing. A position's key is the XOR of
+ * the key of every piece on its square (plus the side to move, the
+ * castling rights and the en passant column), so making
+ * or taking back a move only XORs a few keys in and out.
+ * <p>
+ * The keys come from a fixed seed so they are the same on every run and
+ * can be stored. Anything that stores keys records VERSION with them, so
+ * keys made with another seed or table layout are never compared.
+ */
+final class Zobrist {
+    //bump whenever the seed or the way the tables are filled changes
+    static final int VERSION = 1;
+    //one key per piece (ChessBoard.pieceIndex) per square
+    static final long[][] PIECE_SQUARE = new long[12][64];
+    //XORed in when black is to move
+    static final long BLACK_TO_MOVE;
+    //one key per castling rights bitmask (see ChessGame), 0 for no rights
+    static final long[] CASTLING = new long[16];
+    //one key per column of the en passant square, XORed in while one is set
+    static final long[] EN_PASSANT = new long[8];
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x5EED_C4E55L);
+        for (long[] keys : PIECE_SQUARE) {
+            for (int square = 0; square < 64; square++) {
+                keys[square] = random.nextLong();
+            }
+        }
+        BLACK_TO_MOVE = random.nextLong();
+        long[] rightKeys = new long[4];
+        for (int i = 0; i < rightKeys.length; i++) {
+            rightKeys[i] = random.nextLong();
+        }
+        //each right has its own key so losing one right is one XOR away
+        for (int rights = 1; rights < CASTLING.length; rights++) {
+            for (int i = 0; i < rightKeys.length; i++) {
+                if ((rights & (1 << i)) != 0) {
+                    CASTLING[rights] ^= rightKeys[i];
+                }
+            }
+        }
+        for (int col = 0; col < EN_PASSANT.length; col++) {
+            EN_PASSANT[col] = random.nextLong();
+        }
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * Folds a 64 bit key into an int for hashCode
+     */
+    static int fold(long key) {
+        return (int) (key ^ (key >>> 32));
+    }
+}
@@ -0,0 +1,33 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class ChessBoardTests {
+
+    @Test
+    @DisplayName("Off Board Positions Fail")
+    public void offBoard() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        String before = board.toFen();
+        //each of these would land on a real square if the index were not checked
+        ChessPosition[] outside = {new ChessPosition(1, 9), new ChessPosition(2, 0), new ChessPosition(0, 1),
+                new ChessPosition(9, 8)};
+        ChessPiece queen = ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN);
+        for (ChessPosition position : outside) {
+            Assertions.assertThrows(ArrayIndexOutOfBoundsException.class, () -> board.getPiece(position),
+                    position.toString());
+            Assertions.assertThrows(ArrayIndexOutOfBoundsException.class, () -> board.addPiece(position, queen),
+                    position.toString());
+        }
+        Assertions.assertEquals(before, board.toFen());
+        Assertions.assertThrows(ArrayIndexOutOfBoundsException.class,
+                () -> board.isSquareAttacked(new ChessPosition(3, 0), ChessGame.TeamColor.WHITE));
+
+        ChessGame game = new ChessGame();
+        Assertions.assertThrows(ArrayIndexOutOfBoundsException.class,
+                () -> game.validMoves(new ChessPosition(1, 9)));
+    }
+}
@@ -0,0 +1,90 @@
+package chess;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonSyntaxException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class ChessJsonTests {
+    private final Gson gson = ChessJson.create();
+
+    //stands in for a websocket command that carries a move
+    private record MoveCommand(String authToken, ChessMove move) {
+    }
+
+    @Test
+    @DisplayName("Move Tokens")
+    public void moves() {
+        ChessMove quiet = new ChessMove(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null);
+        ChessMove promotion = new ChessMove(ChessPosition.of(7, 1), ChessPosition.of(8, 2), ChessPiece.PieceType.KNIGHT);
+        Assertions.assertEquals("\"e2e4\"", gson.toJson(quiet));
+        Assertions.assertEquals("\"a7b8n\"", gson.toJson(promotion));
+        Assertions.assertEquals(promotion, gson.fromJson("\"a7b8n\"", ChessMove.class));
+
+        String json = gson.toJson(new MoveCommand("token", quiet));
+        Assertions.assertEquals("{\"authToken\":\"token\",\"move\":\"e2e4\"}", json);
+        Assertions.assertEquals(quiet, gson.fromJson(json, MoveCommand.class).move());
+        Assertions.assertNull(gson.fromJson("{\"authToken\":\"token\",\"move\":null}", MoveCommand.class).move());
+    }
+
+    @Test
+    @DisplayName("Board As Placement")
+    public void board() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        String json = gson.toJson(board);
+        Assertions.assertEquals("\"rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR\"", json);
+        Assertions.assertEquals(board, gson.fromJson(json, ChessBoard.class));
+    }
+
+    @Test
+    @DisplayName("Game Keeps Rule State")
+    public void game() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        //two knight shuffles repeat the start position a second time
+        for (int i = 0; i < 2; i++) {
+            game.makeMove(new ChessMove(ChessPosition.of(1, 7), ChessPosition.of(3, 6), null));
+            game.makeMove(new ChessMove(ChessPosition.of(8, 7), ChessPosition.of(6, 6), null));
+            game.makeMove(new ChessMove(ChessPosition.of(3, 6), ChessPosition.of(1, 7), null));
+            game.makeMove(new ChessMove(ChessPosition.of(6, 6), ChessPosition.of(8, 7), null));
+        }
+        String json = gson.toJson(game);
+        ChessGame loaded = gson.fromJson(json, ChessGame.class);
+        Assertions.assertEquals(game, loaded);
+        Assertions.assertEquals(game.toFen(), loaded.toFen());
+        Assertions.assertTrue(loaded.isThreefoldRepetition());
+        Assertions.assertTrue(json.length() < new Gson().toJson(game).length() / 4,
+                "Adapter output should be far smaller than reflective output");
+    }
+
+    @Test
+    @DisplayName("History From Other Key Versions Is Dropped")
+    public void historyVersion() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(ChessPosition.of(1, 7), ChessPosition.of(3, 6), null));
+        game.makeMove(new ChessMove(ChessPosition.of(8, 7), ChessPosition.of(6, 6), null));
+        JsonObject json = gson.toJsonTree(game).getAsJsonObject();
+        Assertions.assertEquals(Zobrist.VERSION, json.get("zobrist").getAsInt());
+        Assertions.assertEquals(2, gson.fromJson(json, ChessGame.class).recentKeys().length);
+
+        json.addProperty("zobrist", Zobrist.VERSION + 1);
+        ChessGame loaded = gson.fromJson(json, ChessGame.class);
+        Assertions.assertEquals(game, loaded);
+        Assertions.assertEquals(0, loaded.recentKeys().length);
+
+        json.addProperty("zobrist", Zobrist.VERSION);
+        json.addProperty("history", "AAAA");
+        Assertions.assertThrows(JsonSyntaxException.class, () -> gson.fromJson(json, ChessGame.class));
+    }
+
+    @Test
+    @DisplayName("Malformed Input")
+    public void malformed() {
+        Assertions.assertThrows(JsonSyntaxException.class, () -> gson.fromJson("\"e2e9\"", ChessMove.class));
+        Assertions.assertThrows(JsonSyntaxException.class, () -> gson.fromJson("\"e7e8k\"", ChessMove.class));
+        Assertions.assertThrows(JsonSyntaxException.class, () -> gson.fromJson("\"8/8\"", ChessBoard.class));
+        Assertions.assertThrows(JsonSyntaxException.class, () -> gson.fromJson("{}", ChessGame.class));
+    }
+}
@@ -0,0 +1,122 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class DrawRuleTests {
+
+    private static void move(ChessGame game, int startRow, int startCol, int endRow, int endCol)
+            throws InvalidMoveException {
+        game.makeMove(new ChessMove(ChessPosition.of(startRow, startCol), ChessPosition.of(endRow, endCol), null));
+    }
+
+    //both knights out and back, which repeats the position after four plies
+    private static void shuffleKnights(ChessGame game) throws InvalidMoveException {
+        move(game, 1, 7, 3, 6);
+        move(game, 8, 7, 6, 6);
+        move(game, 3, 6, 1, 7);
+        move(game, 6, 6, 8, 7);
+    }
+
+    @Test
+    @DisplayName("Threefold Repetition")
+    public void threefoldRepetition() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        shuffleKnights(game);
+        Assertions.assertFalse(game.isThreefoldRepetition(), "Position has only come up twice");
+        Assertions.assertEquals(ChessGame.GameStatus.ONGOING, game.getGameStatus());
+        shuffleKnights(game);
+        Assertions.assertTrue(game.isThreefoldRepetition());
+        Assertions.assertEquals(ChessGame.GameStatus.THREEFOLD_REPETITION, game.getGameStatus());
+    }
+
+    @Test
+    @DisplayName("Pawn Move Ends Repetition Window")
+    public void irreversibleMoveResets() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        shuffleKnights(game);
+        move(game, 2, 1, 3, 1);
+        Assertions.assertEquals(0, game.getHalfmoveClock());
+        move(game, 7, 1, 6, 1);
+        shuffleKnights(game);
+        Assertions.assertFalse(game.isThreefoldRepetition());
+        Assertions.assertEquals(4, game.getHalfmoveClock());
+    }
+
+    @Test
+    @DisplayName("Fifty Move Rule")
+    public void fiftyMoveRule() throws InvalidMoveException {
+        ChessGame game = ChessGame.fromFen("7k/8/8/8/8/8/8/R6K w");
+        for (int ply = 0; ply < 100; ply += 2) {
+            Assertions.assertFalse(game.isFiftyMoveDraw());
+            boolean out = ply % 4 == 0;
+            move(game, out ? 1 : 2, 1, out ? 2 : 1, 1);
+            move(game, out ? 8 : 7, 8, out ? 7 : 8, 8);
+        }
+        Assertions.assertEquals(100, game.getHalfmoveClock());
+        Assertions.assertTrue(game.isFiftyMoveDraw());
+        //the position has repeated too, the fifty-move rule is reported first
+        Assertions.assertEquals(ChessGame.GameStatus.FIFTY_MOVE_RULE, game.getGameStatus());
+    }
+
+    @Test
+    @DisplayName("Undo Restores Clock And History")
+    public void undoRestores() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        shuffleKnights(game);
+        shuffleKnights(game);
+        ChessGame.MoveUndo undo = game.applyMove(new ChessMove(ChessPosition.of(1, 7), ChessPosition.of(3, 6), null));
+        Assertions.assertEquals(9, game.getHalfmoveClock());
+        game.undoMove(undo);
+        Assertions.assertEquals(8, game.getHalfmoveClock());
+        Assertions.assertTrue(game.isThreefoldRepetition());
+    }
+
+    @Test
+    @DisplayName("Failed Apply Leaves History Alone")
+    public void failedApplyKeepsHistory() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        shuffleKnights(game);
+        long[] before = game.recentKeys();
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> game.applyMove(new ChessMove(ChessPosition.of(4, 4), ChessPosition.of(5, 4), null)));
+        Assertions.assertArrayEquals(before, game.recentKeys());
+        shuffleKnights(game);
+        Assertions.assertTrue(game.isThreefoldRepetition());
+    }
+
+    @Test
+    @DisplayName("Insufficient Material")
+    public void insufficientMaterial() {
+        Assertions.assertTrue(ChessGame.fromFen("8/8/4k3/8/8/3K4/8/8 w").isInsufficientMaterial(), "King against king");
+        Assertions.assertTrue(ChessGame.fromFen("8/8/4k3/8/8/3KN3/8/8 w").isInsufficientMaterial(), "Lone knight");
+        Assertions.assertTrue(ChessGame.fromFen("8/8/4kb2/8/8/3K4/8/8 w").isInsufficientMaterial(), "Lone bishop");
+        Assertions.assertTrue(ChessGame.fromFen("8/8/4kb2/8/8/3KB3/8/8 w").isInsufficientMaterial(),
+                "Bishops on the same color");
+        Assertions.assertEquals(ChessGame.GameStatus.INSUFFICIENT_MATERIAL,
+                ChessGame.fromFen("8/8/4k3/8/8/3K4/8/8 w").getGameStatus());
+
+        Assertions.assertFalse(ChessGame.fromFen("8/8/4k3/8/8/3KP3/8/8 w").isInsufficientMaterial(), "Pawn left");
+        Assertions.assertFalse(ChessGame.fromFen("8/8/4k3/8/8/3KR3/8/8 w").isInsufficientMaterial(), "Rook left");
+        Assertions.assertFalse(ChessGame.fromFen("8/8/4kb2/8/8/3K1B2/8/8 w").isInsufficientMaterial(),
+                "Bishops on opposite colors");
+        Assertions.assertFalse(ChessGame.fromFen("8/8/4kn2/8/8/3KN3/8/8 w").isInsufficientMaterial(), "Two knights");
+        Assertions.assertFalse(new ChessGame().isInsufficientMaterial());
+    }
+
+    @Test
+    @DisplayName("Material Follows Captures And Promotion")
+    public void materialCounters() {
+        ChessGame game = ChessGame.fromFen("1n2k3/P7/8/8/8/8/8/4K3 w");
+        Assertions.assertEquals(1, game.getBoard().getMaterial(ChessGame.TeamColor.WHITE));
+        Assertions.assertEquals(3, game.getBoard().getMaterial(ChessGame.TeamColor.BLACK));
+        ChessGame.MoveUndo undo = game.applyMove(
+                new ChessMove(ChessPosition.of(7, 1), ChessPosition.of(8, 2), ChessPiece.PieceType.QUEEN));
+        Assertions.assertEquals(9, game.getBoard().getMaterial(ChessGame.TeamColor.WHITE));
+        Assertions.assertEquals(0, game.getBoard().getMaterial(ChessGame.TeamColor.BLACK));
+        game.undoMove(undo);
+        Assertions.assertEquals(1, game.getBoard().getMaterial(ChessGame.TeamColor.WHITE));
+        Assertions.assertEquals(3, game.getBoard().getMaterial(ChessGame.TeamColor.BLACK));
+    }
+}
@@ -0,0 +1,50 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class EnPassantTargetTests {
+
+    private static final String AFTER_D5 = "4k3/2pp4/8/3pP3/8/8/8/4K3 w - d6 0 1";
+
+    @Test
+    @DisplayName("Changing The Turn Clears The Target")
+    public void turnChangeClearsTarget() throws InvalidMoveException {
+        ChessGame game = ChessGame.fromFen(AFTER_D5);
+        game.setTeamTurn(ChessGame.TeamColor.WHITE);
+        Assertions.assertEquals(ChessPosition.of(6, 4), game.getEnPassantTarget());
+
+        game.setTeamTurn(ChessGame.TeamColor.BLACK);
+        Assertions.assertNull(game.getEnPassantTarget());
+        //c7 may not take onto d6, which would remove black's own d7 pawn
+        ChessMove fake = new ChessMove(ChessPosition.of(7, 3), ChessPosition.of(6, 4), null);
+        Assertions.assertFalse(game.validMoves(ChessPosition.of(7, 3)).contains(fake));
+        Assertions.assertThrows(InvalidMoveException.class, () -> game.makeMove(fake));
+
+        game.makeMove(new ChessMove(ChessPosition.of(7, 3), ChessPosition.of(6, 3), null));
+        Assertions.assertEquals("4k3/3p4/2p5/3pP3/8/8/8/4K3 w - - 0 2", game.toFen());
+    }
+
+    @Test
+    @DisplayName("Rejects Squares No Pawn Passed Over")
+    public void rejectsBadTargets() {
+        ChessGame game = ChessGame.fromFen(AFTER_D5);
+        //occupied, wrong rank, no pawn just past it, off the board
+        ChessPosition[] bad = {ChessPosition.of(5, 4), ChessPosition.of(3, 4), ChessPosition.of(6, 3),
+                ChessPosition.of(7, 4), ChessPosition.of(9, 4)};
+        for (ChessPosition target : bad) {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> game.setEnPassantTarget(target),
+                    target.toString());
+        }
+        Assertions.assertEquals(ChessPosition.of(6, 4), game.getEnPassantTarget());
+
+        //rank 3 belongs to black to move
+        ChessGame black = ChessGame.fromFen("4k3/8/8/8/3Pp3/8/8/4K3 b - - 0 1");
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> black.setEnPassantTarget(ChessPosition.of(6, 4)));
+        black.setEnPassantTarget(ChessPosition.of(3, 4));
+        Assertions.assertEquals(ChessPosition.of(3, 4), black.getEnPassantTarget());
+        Assertions.assertEquals(ChessGame.fromFen("4k3/8/8/8/3Pp3/8/8/4K3 b - d3 0 1"), black);
+    }
+}
@@ -0,0 +1,77 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class FenTests {
+    private static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    @Test
+    @DisplayName("Starting Position")
+    public void startingPosition() {
+        Assertions.assertEquals(START, new ChessGame().toFen());
+        Assertions.assertEquals(new ChessGame(), ChessGame.fromFen(START));
+        Assertions.assertEquals(new ChessGame().getBoard(), ChessBoard.fromFen(START));
+        Assertions.assertEquals("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR", new ChessGame().getBoard().toFen());
+    }
+
+    @Test
+    @DisplayName("Round Trip")
+    public void roundTrip() {
+        for (Perft.Position position : Perft.POSITIONS) {
+            ChessGame game = ChessGame.fromFen(position.fen());
+            Assertions.assertEquals(position.fen(), game.toFen());
+            Assertions.assertEquals(game, ChessGame.fromFen(game.toFen()));
+        }
+    }
+
+    @Test
+    @DisplayName("Fields Follow Moves")
+    public void fieldsFollowMoves() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+        game.makeMove(new ChessMove(ChessPosition.of(8, 7), ChessPosition.of(6, 6), null));
+        game.makeMove(new ChessMove(ChessPosition.of(4, 5), ChessPosition.of(5, 5), null));
+        game.makeMove(new ChessMove(ChessPosition.of(7, 4), ChessPosition.of(5, 4), null));
+        game.makeMove(new ChessMove(ChessPosition.of(1, 5), ChessPosition.of(2, 5), null));
+        //white could have taken en passant, and gave up castling with the king move
+        String fen = "rnbqkb1r/ppp1pppp/5n2/3pP3/8/8/PPPPKPPP/RNBQ1BNR b kq - 1 3";
+        Assertions.assertEquals(fen, game.toFen());
+
+        ChessGame beforeKingMove = ChessGame.fromFen("rnbqkb1r/ppp1pppp/5n2/3pP3/8/8/PPPP1PPP/RNBQKBNR w KQkq d6 0 3");
+        Assertions.assertEquals(ChessPosition.of(6, 4), beforeKingMove.getEnPassantTarget());
+        Assertions.assertTrue(beforeKingMove.validMoves(ChessPosition.of(5, 5))
+                .contains(new ChessMove(ChessPosition.of(5, 5), ChessPosition.of(6, 4), null)));
+    }
+
+    @Test
+    @DisplayName("Missing Fields Use Defaults")
+    public void defaults() {
+        ChessGame game = ChessGame.fromFen("r3k2r/8/8/8/8/8/8/4K2R");
+        Assertions.assertEquals("r3k2r/8/8/8/8/8/8/4K2R w Kkq - 0 1", game.toFen());
+    }
+
+    @Test
+    @DisplayName("Malformed Input")
+    public void malformed() {
+        String[] bad = {
+                "",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP",
+                "rnbqkbnr/pppppppp/9/8/8/8/PPPPPPPP/RNBQKBNR w",
+                "rnbqkbnr/ppppxppp/8/8/8/8/PPPPPPPP/RNBQKBNR w",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR x",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQxq",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq e4",
+                //en passant squares the last move could not have passed over
+                "4k3/8/8/8/8/8/3P1P2/4K3 w - e3 0 1",
+                "4k3/8/8/8/8/4P3/3P1P2/4K3 b - e3 0 1",
+                "4k3/8/8/4P3/8/8/8/4K3 w - d6 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - x 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 0",
+        };
+        for (String fen : bad) {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen(fen), fen);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+public class GameCodecTests {
+
+    @Test
+    @DisplayName("Round Trip Reference Positions")
+    public void roundTrip() {
+        for (Perft.Position position : Perft.POSITIONS) {
+            ChessGame game = ChessGame.fromFen(position.fen());
+            ByteBuffer bytes = GameCodec.encode(game);
+            Assertions.assertEquals(GameCodec.SIZE, bytes.remaining());
+            ChessGame decoded = GameCodec.decode(bytes);
+            Assertions.assertEquals(game, decoded);
+            Assertions.assertEquals(position.fen(), decoded.toFen());
+        }
+    }
+
+    @Test
+    @DisplayName("Keeps Every Rule Field")
+    public void ruleFields() {
+        String fen = "rnbqkb1r/ppp1pppp/5n2/3pP3/8/8/PPPP1PPP/RNBQKBNR w Kq d6 7 42";
+        //a buffer in the other byte order, holding a record after other data
+        ByteBuffer buffer = ByteBuffer.allocate(5 + GameCodec.SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put(new byte[5]);
+        GameCodec.encode(ChessGame.fromFen(fen), buffer);
+        Assertions.assertEquals(5 + GameCodec.SIZE, buffer.position());
+        Assertions.assertEquals(ByteOrder.LITTLE_ENDIAN, buffer.order());
+
+        buffer.position(5);
+        Assertions.assertEquals(fen, GameCodec.decode(buffer).toFen());
+    }
+
+    @Test
+    @DisplayName("Rejects Bad Records")
+    public void badRecords() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GameCodec.decode(ByteBuffer.allocate(10)));
+        ByteBuffer wrongVersion = GameCodec.encode(new ChessGame());
+        wrongVersion.put(30, (byte) 99);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GameCodec.decode(wrongVersion));
+
+        //e2 is occupied and on the wrong rank for white to move
+        ByteBuffer badTarget = GameCodec.encode(new ChessGame());
+        badTarget.put(25, (byte) 12);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GameCodec.decode(badTarget));
+        //d6 with no black pawn on d5
+        ByteBuffer noPawn = GameCodec.encode(ChessGame.fromFen("4k3/8/8/4P3/8/8/8/4K3 w - - 0 1"));
+        noPawn.put(25, (byte) 43);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GameCodec.decode(noPawn));
+        ByteBuffer badFlags = GameCodec.encode(new ChessGame());
+        badFlags.put(24, (byte) 0x40);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GameCodec.decode(badFlags));
+
+        ChessBoard crowded = new ChessBoard();
+        for (int col = 1; col <= 8; col++) {
+            for (int row = 1; row <= 5; row++) {
+                crowded.addPiece(ChessPosition.of(row, col),
+                        ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+            }
+        }
+        ChessGame game = new ChessGame();
+        game.setBoard(crowded);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GameCodec.encode(game));
+
+        //counters that do not fit in two bytes are refused rather than changed
+        ChessGame longGame = ChessGame.fromFen("4k3/8/8/8/8/8/8/4K3 w - - 0 65536");
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GameCodec.encode(longGame));
+        ChessGame longClock = ChessGame.fromFen("4k3/8/8/8/8/8/8/4K3 w - - 65536 1");
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GameCodec.encode(longClock));
+        String fits = "4k3/8/8/8/8/8/8/4K3 w - - 65535 65535";
+        Assertions.assertEquals(fits, GameCodec.decode(GameCodec.encode(ChessGame.fromFen(fits))).toFen());
+    }
+}
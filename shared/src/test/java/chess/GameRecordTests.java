@@ -0,0 +1,85 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+public class GameRecordTests {
+    //castles on both sides, takes en passant and promotes
+    private static final String[] MOVES = {
+            "e2e4", "d7d5", "e4e5", "f7f5", "e5f6", "g8h6", "g1f3", "b8c6", "f1c4", "c8e6",
+            "e1g1", "d8d6", "f6g7", "e8c8", "g7h8q"
+    };
+
+    private static ChessMove parse(String token) {
+        return ChessMove.fromUci(token);
+    }
+
+    @Test
+    @DisplayName("Replay Reaches Every Ply")
+    public void replay() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        GameRecord record = new GameRecord();
+        List<String> fens = new ArrayList<>();
+        fens.add(game.toFen());
+        for (String token : MOVES) {
+            game.makeMove(parse(token));
+            record.add(parse(token));
+            fens.add(game.toFen());
+        }
+        Assertions.assertEquals(MOVES.length, record.size());
+        for (int ply = 0; ply <= MOVES.length; ply++) {
+            Assertions.assertEquals(fens.get(ply), record.replay(ply).toFen(), "Wrong position after ply " + ply);
+        }
+        Assertions.assertEquals(game, record.replay());
+        Assertions.assertEquals(parse("e1g1"), record.getMove(10));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> record.replay(MOVES.length + 1));
+    }
+
+    @Test
+    @DisplayName("Appended Bytes Match Whole Record")
+    public void appendOnlyBytes() {
+        GameRecord record = new GameRecord("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1");
+        record.add(parse("e1c1"));
+        ByteBuffer stored = ByteBuffer.allocate(256);
+        record.write(stored);
+        int written = stored.position();
+
+        record.add(parse("e8g8"));
+        record.writeMoves(stored, 1);
+        Assertions.assertEquals(written + 2, stored.position(), "A move should cost two bytes");
+        Assertions.assertEquals(record.encodedSize(), stored.position());
+
+        GameRecord read = GameRecord.read(stored.flip());
+        Assertions.assertEquals(record.getStartFen(), read.getStartFen());
+        Assertions.assertEquals(record.getMoves(), read.getMoves());
+        Assertions.assertEquals("r4rk1/8/8/8/8/8/8/2KR3R w - - 2 2", read.replay().toFen());
+    }
+
+    @Test
+    @DisplayName("Rejects Bad Records")
+    public void badRecords() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new GameRecord("not a fen"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GameRecord.read(ByteBuffer.wrap(new byte[]{40, 'r'})));
+
+        GameRecord record = new GameRecord();
+        record.add(parse("e4e5"));
+        Assertions.assertThrows(IllegalStateException.class, record::replay);
+
+        //a pawn promoting to a second king, and a move that stays put
+        String fen = "4k3/P7/8/8/8/8/8/4K3 w - - 0 1";
+        int[] bad = {PackedMove.encode(48, 56, ChessPiece.PieceType.KING, 0),
+                PackedMove.encode(48, 56, ChessPiece.PieceType.PAWN, 0), PackedMove.encode(4, 4, null, 0)};
+        for (int move : bad) {
+            GameRecord withBadMove = new GameRecord(fen);
+            withBadMove.add(move);
+            ByteBuffer bytes = ByteBuffer.allocate(withBadMove.encodedSize());
+            withBadMove.write(bytes);
+            Assertions.assertThrows(IllegalArgumentException.class, () -> GameRecord.read(bytes.flip()));
+        }
+    }
+}
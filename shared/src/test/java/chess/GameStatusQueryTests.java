@@ -0,0 +1,51 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+public class GameStatusQueryTests {
+
+    @Test
+    @DisplayName("Status Of Each Game State")
+    public void statuses() {
+        Assertions.assertEquals(ChessGame.GameStatus.ONGOING, new ChessGame().getGameStatus());
+        Assertions.assertEquals(ChessGame.GameStatus.CHECK,
+                ChessGame.fromFen("rnbqkbnr/ppp2ppp/3p4/1B2p3/4P3/8/PPPP1PPP/RNBQK1NR b").getGameStatus());
+        Assertions.assertEquals(ChessGame.GameStatus.CHECKMATE,
+                ChessGame.fromFen("rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w").getGameStatus());
+        Assertions.assertEquals(ChessGame.GameStatus.STALEMATE,
+                ChessGame.fromFen("k7/8/1Q6/8/8/8/8/7K b").getGameStatus());
+    }
+
+    @Test
+    @DisplayName("Status Agrees With Individual Queries")
+    public void matchesOldQueries() {
+        ChessGame game = ChessGame.fromFen("rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w");
+        Assertions.assertTrue(game.isInCheck(ChessGame.TeamColor.WHITE));
+        Assertions.assertTrue(game.isInCheckmate(ChessGame.TeamColor.WHITE));
+        Assertions.assertFalse(game.isInStalemate(ChessGame.TeamColor.WHITE));
+        Assertions.assertEquals(ChessGame.GameStatus.CHECKMATE, game.getGameStatus());
+    }
+
+    @Test
+    @DisplayName("Early Exit Agrees With Full Generation")
+    public void hasLegalMoveMatchesLegalMoves() {
+        Random random = new Random(240);
+        MoveList moves = new MoveList();
+        for (int gameNumber = 0; gameNumber < 200; gameNumber++) {
+            ChessGame game = new ChessGame();
+            for (int ply = 0; ply < 300; ply++) {
+                game.legalMoves(moves);
+                Assertions.assertEquals(!moves.isEmpty(), game.hasLegalMove(game.getTeamTurn()),
+                        "hasLegalMove disagreed with legalMoves in game " + gameNumber + " at ply " + ply);
+                if (moves.isEmpty()) {
+                    break;
+                }
+                game.applyMove(moves.get(random.nextInt(moves.size())), new ChessGame.MoveUndo());
+            }
+        }
+    }
+}
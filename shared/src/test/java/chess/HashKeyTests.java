@@ -0,0 +1,97 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class HashKeyTests {
+
+    @Test
+    @DisplayName("Key Matches After Moves")
+    public void keyFollowsMoves() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+        game.makeMove(new ChessMove(ChessPosition.of(7, 4), ChessPosition.of(5, 4), null));
+        game.makeMove(new ChessMove(ChessPosition.of(4, 5), ChessPosition.of(5, 4), null));
+
+        ChessGame loaded = ChessGame.fromFen("rnbqkbnr/ppp1pppp/8/3P4/8/8/PPPP1PPP/RNBQKBNR b");
+        Assertions.assertEquals(loaded.getHashKey(), game.getHashKey(),
+                "Incrementally updated key differs from the key of the same position built from scratch");
+        Assertions.assertEquals(loaded.hashCode(), game.hashCode());
+    }
+
+    @Test
+    @DisplayName("Key Depends On Side To Move")
+    public void keyIncludesTurn() {
+        ChessGame white = new ChessGame();
+        ChessGame black = new ChessGame();
+        black.setTeamTurn(ChessGame.TeamColor.BLACK);
+        Assertions.assertEquals(white.getBoard().getHashKey(), black.getBoard().getHashKey());
+        Assertions.assertNotEquals(white.getHashKey(), black.getHashKey());
+    }
+
+    @Test
+    @DisplayName("Undo Restores Key")
+    public void undoRestoresKey() {
+        ChessGame game = new ChessGame();
+        long before = game.getHashKey();
+        ChessGame.MoveUndo undo = game.applyMove(new ChessMove(ChessPosition.of(1, 7), ChessPosition.of(3, 6), null));
+        Assertions.assertNotEquals(before, game.getHashKey());
+        game.undoMove(undo);
+        Assertions.assertEquals(before, game.getHashKey());
+    }
+
+    @Test
+    @DisplayName("Key Depends On Castling Rights")
+    public void keyIncludesCastlingRights() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        long start = game.getHashKey();
+        //the rook goes out and back, same pieces but white can no longer castle kingside
+        game.makeMove(new ChessMove(ChessPosition.of(1, 7), ChessPosition.of(3, 6), null));
+        game.makeMove(new ChessMove(ChessPosition.of(8, 7), ChessPosition.of(6, 6), null));
+        game.makeMove(new ChessMove(ChessPosition.of(1, 8), ChessPosition.of(1, 7), null));
+        game.makeMove(new ChessMove(ChessPosition.of(6, 6), ChessPosition.of(8, 7), null));
+        game.makeMove(new ChessMove(ChessPosition.of(1, 7), ChessPosition.of(1, 8), null));
+        game.makeMove(new ChessMove(ChessPosition.of(8, 7), ChessPosition.of(6, 6), null));
+        game.makeMove(new ChessMove(ChessPosition.of(3, 6), ChessPosition.of(1, 7), null));
+        game.makeMove(new ChessMove(ChessPosition.of(6, 6), ChessPosition.of(8, 7), null));
+
+        Assertions.assertEquals(new ChessGame().getBoard(), game.getBoard());
+        Assertions.assertEquals(ChessGame.ALL_CASTLING & ~ChessGame.WHITE_KINGSIDE, game.getCastlingRights());
+        Assertions.assertNotEquals(start, game.getHashKey());
+        Assertions.assertNotEquals(new ChessGame(), game);
+    }
+
+    @Test
+    @DisplayName("Undo Restores Castling")
+    public void undoRestoresCastling() {
+        ChessGame game = ChessGame.fromFen("r3k2r/8/8/8/8/8/8/R3K2R w");
+        long before = game.getHashKey();
+        ChessGame.MoveUndo undo = game.applyMove(new ChessMove(ChessPosition.of(1, 5), ChessPosition.of(1, 3), null));
+        Assertions.assertEquals(ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK),
+                game.getBoard().getPiece(ChessPosition.of(1, 4)));
+        Assertions.assertEquals(ChessGame.BLACK_KINGSIDE | ChessGame.BLACK_QUEENSIDE, game.getCastlingRights());
+        game.undoMove(undo);
+        Assertions.assertEquals(ChessGame.fromFen("r3k2r/8/8/8/8/8/8/R3K2R w"), game);
+        Assertions.assertEquals(before, game.getHashKey());
+    }
+
+    @Test
+    @DisplayName("En Passant Only Kept When Capturable")
+    public void enPassantKey() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        //no black pawn can take, so the position is the same as one reached without a double push
+        game.makeMove(new ChessMove(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+        Assertions.assertNull(game.getEnPassantTarget());
+        Assertions.assertEquals(ChessGame.fromFen("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b").getHashKey(),
+                game.getHashKey());
+
+        game.makeMove(new ChessMove(ChessPosition.of(7, 1), ChessPosition.of(6, 1), null));
+        game.makeMove(new ChessMove(ChessPosition.of(4, 5), ChessPosition.of(5, 5), null));
+        game.makeMove(new ChessMove(ChessPosition.of(7, 4), ChessPosition.of(5, 4), null));
+        Assertions.assertEquals(ChessPosition.of(6, 4), game.getEnPassantTarget());
+        long withTarget = game.getHashKey();
+        game.setEnPassantTarget(null);
+        Assertions.assertNotEquals(withTarget, game.getHashKey());
+    }
+}
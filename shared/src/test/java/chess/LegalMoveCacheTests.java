@@ -0,0 +1,31 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class LegalMoveCacheTests {
+
+    @Test
+    @DisplayName("Board Edits Refresh Cached Moves")
+    public void directBoardEdit() {
+        ChessGame game = new ChessGame();
+        ChessPosition knight = ChessPosition.of(1, 2);
+        Assertions.assertEquals(2, game.validMoves(knight).size());
+
+        //block one of the knight's squares without going through ChessGame
+        game.getBoard().addPiece(ChessPosition.of(3, 3), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+        Assertions.assertEquals(1, game.validMoves(knight).size(),
+                "validMoves returned moves cached for the board before it was edited");
+    }
+
+    @Test
+    @DisplayName("Set Board Refreshes Cached Moves")
+    public void setBoard() {
+        ChessGame game = new ChessGame();
+        Assertions.assertFalse(game.isInStalemate(ChessGame.TeamColor.BLACK));
+
+        game.setBoard(ChessGame.fromFen("k7/8/1Q6/8/8/8/8/7K b").getBoard());
+        Assertions.assertTrue(game.isInStalemate(ChessGame.TeamColor.BLACK));
+    }
+}
@@ -0,0 +1,65 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class NotationTests {
+
+    private static String san(String fen, String uci) throws InvalidMoveException {
+        ChessGame game = ChessGame.fromFen(fen);
+        return game.toSan(game.parseUci(uci));
+    }
+
+    @Test
+    @DisplayName("UCI Round Trip")
+    public void uci() {
+        ChessMove move = new ChessMove(ChessPosition.of(7, 5), ChessPosition.of(8, 5), ChessPiece.PieceType.QUEEN);
+        Assertions.assertEquals("e7e8q", move.toUci());
+        Assertions.assertEquals(move, ChessMove.fromUci("e7e8q"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessMove.fromUci("e7e"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessMove.fromUci("e7e8x"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessMove.fromUci("i2i4"));
+        Assertions.assertThrows(InvalidMoveException.class, () -> new ChessGame().parseUci("e2e5"));
+    }
+
+    @Test
+    @DisplayName("SAN Disambiguation")
+    public void disambiguation() throws InvalidMoveException {
+        //rooks on the same rank need the file
+        Assertions.assertEquals("Rad1", san("4k3/8/8/8/8/8/4K3/R6R w - - 0 1", "a1d1"));
+        //knights on the same file need the rank
+        Assertions.assertEquals("N1d2", san("4k3/8/8/8/8/1N6/8/1N2K3 w - - 0 1", "b1d2"));
+        //three queens, one of them needs both
+        Assertions.assertEquals("Qh4e1", san("8/k7/8/8/4Q2Q/8/8/1K5Q w - - 0 1", "h4e1"));
+        //only one knight can reach, no disambiguation
+        Assertions.assertEquals("Nf3", san("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1", "g1f3"));
+    }
+
+    @Test
+    @DisplayName("SAN Special Moves")
+    public void specialMoves() throws InvalidMoveException {
+        Assertions.assertEquals("O-O", san("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1", "e1g1"));
+        Assertions.assertEquals("O-O-O+", san("3k4/8/8/8/8/8/8/R3K3 w Q - 0 1", "e1c1"));
+        Assertions.assertEquals("exd6", san("4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 1", "e5d6"));
+        Assertions.assertEquals("exd8=Q+", san("3rk3/4P3/8/8/8/8/8/4K3 w - - 0 1", "e7d8q"));
+        Assertions.assertEquals("Qxf7#",
+                san("r1bqkbnr/pppp1ppp/2n5/4p2Q/2B1P3/8/PPPP1PPP/RNB1K1NR w KQkq - 0 1", "h5f7"));
+        Assertions.assertThrows(InvalidMoveException.class, () -> san(new ChessGame().toFen(), "e1e2"));
+    }
+
+    @Test
+    @DisplayName("SAN Round Trip Through A Game")
+    public void roundTrip() throws InvalidMoveException {
+        String[] moves = ("e4 e5 Nf3 d6 d4 Bg4 dxe5 Bxf3 Qxf3 dxe5 Bc4 Nf6 Qb3 Qe7 Nc3 c6 Bg5 b5 Nxb5 cxb5 "
+                + "Bxb5+ Nbd7 O-O-O Rd8 Rxd7 Rxd7 Rd1 Qe6 Bxd7+ Nxd7 Qb8+ Nxb8 Rd8#").split(" ");
+        ChessGame game = new ChessGame();
+        for (String san : moves) {
+            ChessMove move = game.parseSan(san);
+            Assertions.assertEquals(san, game.toSan(move));
+            Assertions.assertEquals(move, game.parseUci(move.toUci()));
+            game.makeMove(move);
+        }
+        Assertions.assertEquals(ChessGame.GameStatus.CHECKMATE, game.getGameStatus());
+    }
+}
@@ -0,0 +1,29 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class PerftTests {
+
+    @Test
+    @DisplayName("Perft Reference Positions")
+    public void referencePositions() {
+        for (Perft.Position position : Perft.POSITIONS) {
+            Perft perft = new Perft(ChessGame.fromFen(position.fen()));
+            for (int depth = 1; depth <= position.expected().length; depth++) {
+                Assertions.assertEquals(position.expected()[depth - 1], perft.count(depth),
+                        "Wrong node count for " + position.name() + " at depth " + depth);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Perft Leaves Game Unchanged")
+    public void perftRestoresGame() {
+        ChessGame game = new ChessGame();
+        ChessGame original = new ChessGame();
+        new Perft(game).count(3);
+        Assertions.assertEquals(original, game, "Game changed after perft made and unmade its moves");
+    }
+}
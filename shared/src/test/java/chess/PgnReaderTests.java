@@ -0,0 +1,122 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+public class PgnReaderTests {
+    private static final String OPERA_GAME = """
+            [Event "Paris"]
+            [White "Paul Morphy"]
+            [Black "Duke Karl / Count Isouard"]
+            [Result "1-0"]
+
+            1. e4 e5 2. Nf3 d6 3. d4 Bg4 4. dxe5 Bxf3 5. Qxf3 dxe5 6. Bc4 Nf6 7. Qb3 Qe7
+            8. Nc3 c6 9. Bg5 b5 10. Nxb5 cxb5 11. Bxb5+ Nbd7 12. O-O-O Rd8 13. Rxd7 Rxd7
+            14. Rd1 Qe6 15. Bxd7+ Nxd7 16. Qb8+ Nxb8 17. Rd8# 1-0
+
+            """;
+
+    @Test
+    @DisplayName("Reads A Full Game")
+    public void operaGame() throws IOException {
+        PgnReader reader = new PgnReader(new StringReader(OPERA_GAME));
+        PgnGame game = reader.next();
+        Assertions.assertEquals("Paul Morphy", game.tags().get("White"));
+        Assertions.assertEquals("1-0", game.result());
+        Assertions.assertEquals(33, game.record().size());
+        Assertions.assertEquals(ChessGame.GameStatus.CHECKMATE, game.game().getGameStatus());
+        Assertions.assertEquals(game.game(), game.record().replay());
+        Assertions.assertNull(reader.next());
+    }
+
+    @Test
+    @DisplayName("Skips Comments, Variations And Annotations")
+    public void annotations() throws IOException {
+        String pgn = """
+                % an escaped line
+                [Event "Test"]
+                [SetUp "1"]
+                [FEN "4k3/1P6/8/8/3p4/8/4P3/4K3 w - - 0 1"]
+
+                1. e4 {white pushes two} (1. e3 d3 $2) 1... dxe3 $1 ; en passant
+                2. b8=Q+ Kd7 3. Qb5+ *
+                [Event "No result"]
+
+                1. d4 d5
+                """;
+        PgnReader reader = new PgnReader(new StringReader(pgn));
+        PgnGame first = reader.next();
+        Assertions.assertEquals("*", first.result());
+        Assertions.assertEquals(5, first.record().size());
+        Assertions.assertEquals("8/3k4/8/1Q6/8/4p3/8/4K3 b - - 2 3", first.game().toFen());
+
+        PgnGame second = reader.next();
+        Assertions.assertEquals("No result", second.tags().get("Event"));
+        Assertions.assertEquals(2, second.record().size());
+        Assertions.assertNull(reader.next());
+    }
+
+    @Test
+    @DisplayName("Bad Game Is Skipped")
+    public void badGame() throws IOException {
+        String pgn = "[Event \"Bad\"]\n\n1. e4 e5 2. Ke3 Nc6 1-0\n\n" + OPERA_GAME;
+        List<String> errors = new ArrayList<>();
+        List<PgnGame> games = new ArrayList<>();
+        PgnLoader.Stats stats = PgnLoader.load(new StringReader(pgn), games::add, e -> errors.add(e.getMessage()));
+        Assertions.assertEquals(1, stats.games());
+        Assertions.assertEquals(1, stats.errors());
+        Assertions.assertEquals(33, stats.plies());
+        Assertions.assertTrue(errors.get(0).contains("move 2. 'Ke3'"), errors.get(0));
+        Assertions.assertEquals("Paul Morphy", games.get(0).tags().get("White"));
+    }
+
+    @Test
+    @DisplayName("Errors Use The Movetext Numbering")
+    public void errorMoveNumber() {
+        String pgn = "[FEN \"4k3/8/8/8/8/8/4P3/4K3 b - - 0 40\"]\n\n40... Kd7 41. e4 Kd5 42. Kd3 *\n";
+        PgnReader reader = new PgnReader(new StringReader(pgn));
+        IllegalArgumentException e = Assertions.assertThrows(IllegalArgumentException.class, reader::next);
+        Assertions.assertTrue(e.getMessage().contains("move 41... 'Kd5'"), e.getMessage());
+    }
+
+    @Test
+    @DisplayName("Streams Many Games")
+    public void manyGames() throws IOException {
+        int copies = 5000;
+        //hands out the same game again and again without ever holding the whole file
+        Reader repeating = new Reader() {
+            private int copy;
+            private int offset;
+
+            @Override
+            public int read(char[] buffer, int start, int length) {
+                if (copy == copies) {
+                    return -1;
+                }
+                int count = Math.min(length, OPERA_GAME.length() - offset);
+                OPERA_GAME.getChars(offset, offset + count, buffer, start);
+                offset += count;
+                if (offset == OPERA_GAME.length()) {
+                    offset = 0;
+                    copy++;
+                }
+                return count;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        PgnLoader.Stats stats = PgnLoader.load(repeating, game -> { }, e -> Assertions.fail(e.getMessage()));
+        Assertions.assertEquals(copies, stats.games());
+        Assertions.assertEquals(33L * copies, stats.plies());
+        Assertions.assertEquals(0, stats.errors());
+    }
+}